@@ -0,0 +1,26 @@
+package com.cjg.book.controller;
+
+import com.cjg.book.code.CategoryCode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class BookControllerBenchmark {
+
+    private BookController bookController;
+    private List<CategoryCode> categoryCodeList;
+
+    @Setup
+    public void setUp(){
+        //checkDuplicatedCode는 의존 객체를 사용하지 않는다.
+        bookController = new BookController(null, null, null, null, null, null, null);
+        categoryCodeList = List.of(CategoryCode.cook, CategoryCode.cook_general, CategoryCode.literature, CategoryCode.it);
+    }
+
+    @Benchmark
+    public List<CategoryCode> checkDuplicatedCode(){
+        bookController.checkDuplicatedCode(categoryCodeList);
+        return categoryCodeList;
+    }
+}
@@ -0,0 +1,79 @@
+package com.cjg.book.repository;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.dto.request.BookListCursor;
+import com.cjg.book.dto.request.BookListRequestDto;
+import com.cjg.book.index.BookTextIndex;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.cjg.book.domain.QBook.book;
+
+/*
+목록 조회 쿼리 생성 벤치마크
+EntityManager 없이 JPAQuery를 만들고 JPQL 문자열로 직렬화하는 데까지 측정한다.(DB 실행 제외)
+*/
+@State(Scope.Benchmark)
+public class CustomBookRepositoryBenchmark {
+
+    private CustomBookRepositoryImpl customBookRepository;
+    private BookListRequestDto bookListRequestDto;
+    private Set<Long> candidateSet;
+    private BookListCursor cursor;
+
+    @Setup
+    public void setUp(){
+        //EntityManager 없이 쿼리를 만들고 문자열로만 직렬화한다.
+        customBookRepository = new CustomBookRepositoryImpl(new JPAQueryFactory(JPQLTemplates.DEFAULT, () -> null), new BookTextIndex(), new SimpleMeterRegistry(), null);
+
+        bookListRequestDto = BookListRequestDto.builder()
+                .categoryCodeList(List.of(CategoryCode.cook, CategoryCode.cook_general))
+                .statusCode(StatusCode.good)
+                .author("최종규")
+                .name("흑백요리사")
+                .build();
+
+        candidateSet = LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toSet());
+        cursor = new BookListCursor(LocalDateTime.now(), 100L);
+    }
+
+    //색인을 사용할 수 없을 때 : LIKE 조건
+    @Benchmark
+    public String listQuery_like(){
+        return listQuery(null).toString();
+    }
+
+    //색인 후보가 있을 때 : bookId IN 조건
+    @Benchmark
+    public String listQuery_candidate(){
+        return listQuery(candidateSet).toString();
+    }
+
+    @Benchmark
+    public String listByCursorQuery(){
+        return customBookRepository.selectBookRow()
+                .where(customBookRepository.listCondition(bookListRequestDto, null))
+                .where(customBookRepository.afterCursor(cursor))
+                .orderBy(book.regDate.desc(), book.bookId.desc())
+                .limit(11)
+                .toString();
+    }
+
+    private JPAQuery<BookRow> listQuery(Set<Long> candidateSet){
+        return customBookRepository.selectBookRow()
+                .where(customBookRepository.listCondition(bookListRequestDto, candidateSet))
+                .orderBy(book.regDate.desc(), book.bookId.desc())
+                .offset(10)
+                .limit(10);
+    }
+}
@@ -0,0 +1,74 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.domain.Book;
+import com.cjg.book.dto.request.BookListRequestDto;
+import com.cjg.book.dto.response.BookResponseDto;
+import com.cjg.book.repository.BookRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+BookService 요청 경로 벤치마크
+DB 조회 없이 엔티티 > DTO 변환, 목록 매핑 반복문, 페이지 URL 생성만 측정한다.
+*/
+@State(Scope.Benchmark)
+public class BookServiceBenchmark {
+
+    @Param({"10", "100"})
+    private int rowCount;
+
+    private BookService bookService;
+    private Book book;
+    private List<BookRow> bookList;
+    private BookListRequestDto bookListRequestDto;
+
+    @Setup
+    public void setUp(){
+        bookList = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for(long i=1; i<=rowCount; i++){
+            bookList.add(new BookRow(i, "최종규", "흑백요리사" + i, StatusCode.good.name(), now, i % 2 == 0 ? now : null, "cook,cook_general"));
+        }
+
+        book = Book.builder()
+                .bookId(1L)
+                .author("최종규")
+                .name("흑백요리사")
+                .status(StatusCode.good.name())
+                .regDate(now)
+                .build();
+
+        //매핑, URL 생성은 의존 객체를 사용하지 않는다.
+        bookService = new BookService(null, null, null, null, null, null, null, null);
+
+        bookListRequestDto = BookListRequestDto.builder()
+                .categoryCodeList(List.of(CategoryCode.cook, CategoryCode.cook_general, CategoryCode.literature))
+                .statusCode(StatusCode.good)
+                .author("최종규")
+                .name("흑백요리사")
+                .pageNumber(2)
+                .pageSize(10)
+                .build();
+    }
+
+    @Benchmark
+    public BookResponseDto toBookResponseDto(){
+        return bookService.toBookResponseDto(book);
+    }
+
+    @Benchmark
+    public List<BookResponseDto> toBookResponseDtoList(){
+        return bookService.toBookResponseDtoList(bookList);
+    }
+
+    @Benchmark
+    public String getPageUrl(){
+        return bookService.getPageUrl(bookListRequestDto, "next", 100);
+    }
+}
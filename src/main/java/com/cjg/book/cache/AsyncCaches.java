@@ -0,0 +1,46 @@
+package com.cjg.book.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/*
+Caffeine 캐시 적재를 잠금 밖, 호출 스레드에서 실행
+Cache.get(key, loader)는 ConcurrentHashMap.compute의 synchronized 안에서 loader를 실행하므로
+가상 스레드가 loader 안에서 JDBC나 다른 스레드를 기다리는 동안 캐리어 스레드를 붙잡는다.(pinning)
+잠금 안에서는 완료되지 않은 future만 넣고 loader는 잠금 밖에서 실행한다.
+같은 키를 동시에 조회하면 먼저 넣은 future를 기다리므로 한번만 적재하고, 적재 중에 무효화되면 future가 캐시에서 빠지므로 이전 값이 남지 않는다.
+실패하거나 null로 완료된 future는 Caffeine이 캐시에서 지운다.
+*/
+public final class AsyncCaches {
+
+    private AsyncCaches(){}
+
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader){
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> loading);
+        if(future != loading) return join(future);
+
+        try{
+            V value = loader.apply(key);
+            loading.complete(value);
+            return value;
+        }catch(RuntimeException | Error e){
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    //다른 스레드의 적재가 실패하면 loader가 던진 예외를 그대로 던진다.
+    private static <V> V join(CompletableFuture<V> future){
+        try{
+            return future.join();
+        }catch(CompletionException e){
+            if(e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            if(e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+}
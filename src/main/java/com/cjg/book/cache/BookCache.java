@@ -0,0 +1,138 @@
+package com.cjg.book.cache;
+
+import com.cjg.book.dto.response.BookCacheStatsDto;
+import com.cjg.book.dto.response.BookResponseDto;
+import com.cjg.book.event.BookChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Function;
+
+/*
+서적 개별 조회 캐시
+1단계 : BookResponseDto, 2단계(선택) : 응답 JSON을 직렬화한 byte[], 그리고 조건부 조회에 사용하는 ETag
+조회는 키 단위로 한번만 적재되고(AsyncCaches), 수정/삭제는 커밋된 뒤에 무효화하므로 적재 중이던 이전 값도 함께 지워진다.
+book.cache.enabled=false이면 캐시를 만들지 않고 항상 loader를 호출한다.
+*/
+@Component
+@RequiredArgsConstructor
+public class BookCache {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${book.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${book.cache.json-enabled:false}")
+    private boolean jsonEnabled = false;
+
+    @Value("${book.cache.maximum-size:10000}")
+    private long maximumSize = 10000;
+
+    //무효화가 누락되더라도 오래된 값이 계속 남지 않도록 하는 안전장치
+    @Value("${book.cache.expire-after-write:10m}")
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    //loader가 JDBC, 가상 스레드를 기다리므로 잠금 안에서 적재하지 않는다.(AsyncCaches)
+    private AsyncCache<Long, BookResponseDto> dtoCache;
+    private AsyncCache<Long, byte[]> jsonCache;
+    private AsyncCache<Long, String> eTagCache;
+
+    @PostConstruct
+    public void init(){
+        if(!enabled) return;
+
+        dtoCache = newCache();
+        eTagCache = newCache();
+        if(jsonEnabled) jsonCache = newCache();
+    }
+
+    private <V> AsyncCache<Long, V> newCache(){
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public BookResponseDto get(long bookId, Function<Long, BookResponseDto> loader){
+        if(dtoCache == null) return loader.apply(bookId);
+        return AsyncCaches.get(dtoCache, bookId, loader);
+    }
+
+    public String getETag(long bookId, Function<Long, String> loader){
+        if(eTagCache == null) return loader.apply(bookId);
+        return AsyncCaches.get(eTagCache, bookId, loader);
+    }
+
+    public boolean isJsonEnabled(){
+        return jsonCache != null;
+    }
+
+    //loader가 만든 응답 객체를 JSON으로 직렬화하여 캐시한다.
+    public byte[] getJson(long bookId, Function<Long, Object> loader){
+        if(jsonCache == null) return toJson(loader.apply(bookId));
+        return AsyncCaches.get(jsonCache, bookId, id -> toJson(loader.apply(id)));
+    }
+
+    public void invalidate(long bookId){
+        if(dtoCache != null) dtoCache.synchronous().invalidate(bookId);
+        if(eTagCache != null) eTagCache.synchronous().invalidate(bookId);
+        if(jsonCache != null) jsonCache.synchronous().invalidate(bookId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event){
+        if(event.getType() != BookChangedEvent.Type.SAVE) invalidate(event.getBookId());
+    }
+
+    public BookCacheStatsDto stats(){
+        return BookCacheStatsDto.builder()
+                .enabled(dtoCache != null)
+                .dto(toStats(dtoCache))
+                .json(toStats(jsonCache))
+                .build();
+    }
+
+    //캐시를 사용하지 않으면 등록하지 않는다.
+    public void bindMetrics(MeterRegistry meterRegistry){
+        if(dtoCache != null) CaffeineCacheMetrics.monitor(meterRegistry, dtoCache.synchronous(), "book.dto");
+        if(eTagCache != null) CaffeineCacheMetrics.monitor(meterRegistry, eTagCache.synchronous(), "book.etag");
+        if(jsonCache != null) CaffeineCacheMetrics.monitor(meterRegistry, jsonCache.synchronous(), "book.json");
+    }
+
+    private BookCacheStatsDto.Tier toStats(AsyncCache<Long, ?> asyncCache){
+        if(asyncCache == null) return null;
+
+        Cache<Long, ?> cache = asyncCache.synchronous();
+        CacheStats stats = cache.stats();
+        return BookCacheStatsDto.Tier.builder()
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .evictionCount(stats.evictionCount())
+                .hitRate(stats.hitRate())
+                .build();
+    }
+
+    private byte[] toJson(Object value){
+        try{
+            return objectMapper.writeValueAsBytes(value);
+        }catch(JsonProcessingException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+}
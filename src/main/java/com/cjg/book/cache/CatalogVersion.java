@@ -0,0 +1,28 @@
+package com.cjg.book.cache;
+
+import com.cjg.book.event.BookChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+서적 목록 변경 표시
+서적이 저장/수정/삭제되어 커밋될 때마다 값이 바뀐다. 목록 ETag 계산에 사용하여 변경이 없으면 목록 조회 자체를 생략한다.
+재시작 이전에 발급한 ETag가 다시 일치하지 않도록 시작 값은 임의로 정한다.
+*/
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong(ThreadLocalRandom.current().nextLong());
+
+    public long get(){
+        return version.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event){
+        version.incrementAndGet();
+    }
+}
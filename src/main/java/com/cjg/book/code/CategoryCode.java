@@ -3,6 +3,10 @@ package com.cjg.book.code;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 @AllArgsConstructor
 @Getter
 public enum CategoryCode {
@@ -18,4 +22,37 @@ public enum CategoryCode {
 
     private final long code;
     private final String name;
+
+    //Book.categoryMask의 비트. code 1번이 최하위 비트
+    public long getBit(){
+        return 1L << (code - 1);
+    }
+
+    //code(= category_id)로 찾는다. category 테이블과 일치하는지는 CategoryRegistry가 기동 시 검증한다.
+    public static CategoryCode ofCode(long code){
+        for(CategoryCode categoryCode : values()){
+            if(categoryCode.code == code) return categoryCode;
+        }
+        throw new IllegalArgumentException("unknown category code : " + code);
+    }
+
+    public static long toMask(Collection<CategoryCode> categoryCodeList){
+        long mask = 0L;
+        for(CategoryCode categoryCode : categoryCodeList){
+            mask |= categoryCode.getBit();
+        }
+        return mask;
+    }
+
+    //요청한 카테고리 비트가 하나라도 있는 모든 categoryMask 값. 카테고리가 n개이면 최대 2^n - 1개
+    public static List<Long> matchingMaskList(Collection<CategoryCode> categoryCodeList){
+        long requestMask = toMask(categoryCodeList);
+        long allMask = toMask(List.of(values()));
+
+        List<Long> maskList = new ArrayList<>();
+        for(long mask = allMask; mask > 0; mask = (mask - 1) & allMask){
+            if((mask & requestMask) != 0) maskList.add(mask);
+        }
+        return maskList;
+    }
 }
@@ -0,0 +1,16 @@
+package com.cjg.book.code;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//목록 전체 건수 계산 방식
+@AllArgsConstructor
+@Getter
+public enum CountMode {
+    exact("count 쿼리"),
+    cached("조건별 캐시, 서적 변경시 무효화"),
+    estimated("메모리 색인 추정");
+
+    private final String message;
+}
@@ -0,0 +1,13 @@
+package com.cjg.book.code;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public enum ExportFormat {
+    csv("text/csv"),
+    ndjson("application/x-ndjson");
+
+    private final String contentType;
+}
@@ -16,17 +16,30 @@ public enum ResultCode {
     BOOK_SEARCH_NOT_FOUND(HttpStatus.NOT_FOUND, "도서가 없습니다"),
     BOOK_MODIFY_SUCCESS(HttpStatus.OK, "도서 수정 성공"),
     BOOK_DELETE_SUCCESS(HttpStatus.OK, "도서 삭제 성공"),
+    BOOK_BULK_SAVE_SUCCESS(HttpStatus.OK, "도서 일괄 저장 완료"),
+    BOOK_CACHE_STATS_OK(HttpStatus.OK, "도서 캐시 통계 조회 성공"),
+    BOOK_FACET_OK(HttpStatus.OK, "도서 건수 집계 성공"),
+    BOOK_SUGGEST_OK(HttpStatus.OK, "도서 자동완성 조회 성공"),
+    BOOK_FUZZY_SEARCH_OK(HttpStatus.OK, "도서 오타 허용 검색 성공"),
 
     BOOK_INVALID_CATEGORY(HttpStatus.BAD_REQUEST, "중복된 카테고리값입니다."),
     BOOK_INVALID_AUTHOR(HttpStatus.BAD_REQUEST, "지은이가 적합하지 않습니다."),
     BOOK_INVALID_NAME(HttpStatus.BAD_REQUEST, "제목이 적합하지 않습니다."),
 
     BOOK_INVALID_PARAM(HttpStatus.BAD_REQUEST, "적합하지 않은 파라미터입니다."),
+    BOOK_INVALID_QUERY(HttpStatus.BAD_REQUEST, "검색어가 적합하지 않습니다."),
+    BOOK_INVALID_DATE_RANGE(HttpStatus.BAD_REQUEST, "날짜 범위가 적합하지 않습니다."),
+    BOOK_INVALID_DISTANCE(HttpStatus.BAD_REQUEST, "허용 편집 거리가 적합하지 않습니다."),
+    BOOK_CONFLICT(HttpStatus.CONFLICT, "다른 요청이 도서를 먼저 수정 또는 삭제했습니다. 다시 조회 후 시도해주세요."),
+    BOOK_SAVE_FAIL(HttpStatus.INTERNAL_SERVER_ERROR, "도서 저장에 실패했습니다."),
+    BOOK_INDEX_NOT_READY(HttpStatus.SERVICE_UNAVAILABLE, "도서 색인을 준비중입니다. 잠시 후 다시 시도해주세요."),
 
     CATEGORY_SEARCH_NOT_FOUND(HttpStatus.NOT_FOUND, "해당 카테고리가 없습니다"),
 
     PAGE_INVALID_SIZE(HttpStatus.BAD_REQUEST, "페이지 사이즈가 적합하지 않습니다"),
-    PAGE_INVALID_NUMBER(HttpStatus.BAD_REQUEST, "페이지 번호가 적합하지 않습니다");
+    PAGE_INVALID_NUMBER(HttpStatus.BAD_REQUEST, "페이지 번호가 적합하지 않습니다"),
+    PAGE_INVALID_CURSOR(HttpStatus.BAD_REQUEST, "커서 값이 적합하지 않습니다"),
+    PAGE_INVALID_SORT(HttpStatus.BAD_REQUEST, "커서 페이징은 등록일 내림차순 정렬만 지원합니다");
 
     private final HttpStatus httpStatus;
     private final String message;
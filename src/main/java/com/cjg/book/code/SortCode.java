@@ -0,0 +1,22 @@
+package com.cjg.book.code;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+//목록 정렬. 값이 같으면 bookId를 같은 방향으로 정렬한다. 제목, 지은이는 한국어 정렬 키(BookSortKey) 순서
+@AllArgsConstructor
+@Getter
+public enum SortCode {
+    regDate_desc("regDate", Sort.Direction.DESC),
+    regDate_asc("regDate", Sort.Direction.ASC),
+    modDate_desc("modDate", Sort.Direction.DESC),
+    modDate_asc("modDate", Sort.Direction.ASC),
+    name_asc("name", Sort.Direction.ASC),
+    name_desc("name", Sort.Direction.DESC),
+    author_asc("author", Sort.Direction.ASC),
+    author_desc("author", Sort.Direction.DESC);
+
+    private final String property;
+    private final Sort.Direction direction;
+}
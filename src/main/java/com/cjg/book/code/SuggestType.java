@@ -0,0 +1,15 @@
+package com.cjg.book.code;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//자동완성 대상 필드
+@AllArgsConstructor
+@Getter
+public enum SuggestType {
+    name("제목"),
+    author("지은이");
+
+    private final String message;
+}
@@ -0,0 +1,43 @@
+package com.cjg.book.config.jpa;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/*
+ID 시퀀스 위치 보정
+book, book_category는 IDENTITY에서 시퀀스(pooled optimizer)로 바뀌었으므로, 기존 데이터의 최대 ID보다 시퀀스가 뒤처져 있으면 키 충돌이 난다.
+스키마 생성(ddl-auto) 이후, 첫 INSERT 전에 시퀀스를 기존 최대 ID 이후로 옮긴다.
+*/
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceInitializer {
+
+    //엔티티 @SequenceGenerator의 allocationSize. 한번의 시퀀스 호출로 이만큼의 ID를 메모리에서 할당한다.
+    public static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init(){
+        align("book_seq", "book", "book_id");
+        align("book_category_seq", "book_category", "book_category_id");
+    }
+
+    private void align(String sequenceName, String tableName, String idColumn){
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(" + idColumn + "), 0) from " + tableName, Long.class);
+        Long nextValue = jdbcTemplate.queryForObject("select nextval(" + sequenceName + ")", Long.class);
+
+        //pooled optimizer는 시퀀스 값 V를 받아 (V - allocationSize, V] 구간의 ID를 할당한다.
+        if(nextValue - ALLOCATION_SIZE < maxId){
+            long restartValue = maxId + ALLOCATION_SIZE;
+            jdbcTemplate.execute("alter sequence " + sequenceName + " restart with " + restartValue);
+            log.info("sequence {} restarted with {} (max {} : {})", sequenceName, restartValue, idColumn, maxId);
+        }
+    }
+}
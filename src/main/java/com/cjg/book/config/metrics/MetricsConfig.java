@@ -0,0 +1,25 @@
+package com.cjg.book.config.metrics;
+
+import com.cjg.book.cache.BookCache;
+import com.cjg.book.service.BookCountService;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/*
+직접 만든 Caffeine 캐시 지표 등록(cache.gets, cache.evictions 등, cache 태그로 구분)
+Hikari 커넥션 풀, Hibernate 통계, JVM/GC 지표는 actuator 자동 설정으로 등록된다.
+*/
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder bookCacheMetrics(BookCache bookCache){
+        return bookCache::bindMetrics;
+    }
+
+    @Bean
+    public MeterBinder bookCountCacheMetrics(BookCountService bookCountService){
+        return bookCountService::bindMetrics;
+    }
+}
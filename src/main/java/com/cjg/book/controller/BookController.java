@@ -2,24 +2,50 @@ package com.cjg.book.controller;
 
 
 
+import com.cjg.book.cache.BookCache;
 import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.CountMode;
+import com.cjg.book.code.ExportFormat;
 import com.cjg.book.code.ResultCode;
+import com.cjg.book.code.SortCode;
 import com.cjg.book.code.StatusCode;
 import com.cjg.book.dto.request.BookDeleteRequestDto;
+import com.cjg.book.dto.request.BookFuzzySearchRequestDto;
 import com.cjg.book.dto.request.BookListRequestDto;
 import com.cjg.book.dto.request.BookModifyRequestDto;
 import com.cjg.book.dto.request.BookSaveRequestDto;
+import com.cjg.book.dto.response.BookBulkResponseDto;
+import com.cjg.book.dto.response.BookCacheStatsDto;
+import com.cjg.book.dto.response.BookFacetResponseDto;
 import com.cjg.book.dto.response.BookListResponseDto;
 import com.cjg.book.dto.response.BookResponseDto;
+import com.cjg.book.dto.response.BookSuggestDto;
 import com.cjg.book.exception.CustomException;
 import com.cjg.book.response.Response;
+import com.cjg.book.service.BookBulkService;
+import com.cjg.book.service.BookExportService;
+import com.cjg.book.service.BookFacetService;
+import com.cjg.book.service.BookFuzzySearchService;
 import com.cjg.book.service.BookService;
+import com.cjg.book.service.BookSuggestService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -29,6 +55,12 @@ import java.util.Set;
 public class BookController {
 
     private final BookService bookService;
+    private final BookBulkService bookBulkService;
+    private final BookExportService bookExportService;
+    private final BookFacetService bookFacetService;
+    private final BookSuggestService bookSuggestService;
+    private final BookFuzzySearchService bookFuzzySearchService;
+    private final BookCache bookCache;
 
     @PostMapping(value = "/v1/book")
     @Operation(summary = "서적 저장")
@@ -37,25 +69,58 @@ public class BookController {
         return ResponseEntity.ok(Response.success(ResultCode.BOOK_SAVE_SUCCESS, bookService.save(bookDto)));
     }
 
+    @PostMapping(value = "/v1/book/bulk", consumes = "application/x-ndjson")
+    @Operation(summary = "서적 일괄 저장", description = "NDJSON(한 줄에 서적 하나) 본문을 읽으면서 chunk 단위로 저장한다. 실패한 줄은 건너뛰고 줄 번호와 사유를 응답에 담는다.")
+    public ResponseEntity<Response<BookBulkResponseDto>> bulkSave(InputStream inputStream) throws IOException {
+        return ResponseEntity.ok(Response.success(ResultCode.BOOK_BULK_SAVE_SUCCESS, bookBulkService.save(inputStream)));
+    }
+
+    //본문은 Response<BookResponseDto>, 직렬화된 응답 캐시를 사용하면 같은 JSON의 byte[]
     @GetMapping(value = "/v1/book/{bookId}")
     @Operation(summary = "서적 개별 조회")
-    public ResponseEntity<Response<BookResponseDto>> findById(@PathVariable("bookId") long bookId){
+    public ResponseEntity<?> findById(@PathVariable("bookId") long bookId, WebRequest webRequest){
+
+        //If-None-Match가 일치하면 서적, 카테고리를 조회하지 않고 304
+        String eTag = bookService.getETag(bookId);
+        if(webRequest.checkNotModified(eTag)) return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+
+        //직렬화된 응답까지 캐시하는 경우 byte[]를 그대로 내려준다.
+        if(bookCache.isJsonEnabled()){
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(bookCache.getJson(bookId, id -> Response.success(ResultCode.BOOK_SEARCH_ONE_OK, bookService.findById(id))));
+        }
 
-        System.out.println("11");
-        System.out.println("22");
-        System.out.println("33");
-        return ResponseEntity.ok(Response.success(ResultCode.BOOK_SEARCH_ONE_OK, bookService.findById(bookId)));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(Response.success(ResultCode.BOOK_SEARCH_ONE_OK, bookService.findById(bookId)));
+    }
+
+    @GetMapping(value = "/v1/book/cache/stats")
+    @Operation(summary = "서적 개별 조회 캐시 통계")
+    public ResponseEntity<Response<BookCacheStatsDto>> cacheStats(){
+        return ResponseEntity.ok(Response.success(ResultCode.BOOK_CACHE_STATS_OK, bookCache.stats()));
     }
 
     @GetMapping(value = "/v1/book/list")
-    @Operation(summary = "서적 리스트 조회")
+    @Operation(summary = "서적 리스트 조회", description = "cursor 파라미터를 넘기면(첫 페이지는 빈 값) 커서 페이징으로 조회하고, 응답의 nextCursor로 다음 페이지를 조회한다. countMode로 전체 건수 계산 방식(exact, cached, estimated)을 고른다. sort로 등록일, 수정일, 제목, 지은이 정렬(커서 페이징은 regDate_desc만), regDateFrom~regDateTo, modDateFrom~modDateTo(yyyy-MM-dd, 양끝 포함)로 기간을 거른다.")
     public ResponseEntity<Response<BookListResponseDto>> list(
             @RequestParam(required = false) List<CategoryCode> categoryCodeList
             ,@RequestParam(required = false) StatusCode statusCode
             ,@RequestParam(required = false) String author
             ,@RequestParam(required = false) String name
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate regDateFrom
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate regDateTo
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modDateFrom
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modDateTo
+            ,@RequestParam(required = false) SortCode sort
             ,@RequestParam(required = false, defaultValue = "1") Integer pageNumber
             ,@RequestParam(required = false, defaultValue = "10") Integer pageSize
+            ,@RequestParam(required = false) String cursor
+            ,@RequestParam(required = false, defaultValue = "false") Boolean relevance
+            ,@RequestParam(required = false, defaultValue = "exact") CountMode countMode
+            ,WebRequest webRequest
     ){
 
         BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
@@ -63,13 +128,117 @@ public class BookController {
                 .statusCode(statusCode)
                 .author(author)
                 .name(name)
+                .regDateFrom(regDateFrom)
+                .regDateTo(regDateTo)
+                .modDateFrom(modDateFrom)
+                .modDateTo(modDateTo)
+                .sort(sort)
                 .pageNumber(pageNumber)
                 .pageSize(pageSize)
+                .cursor(cursor)
+                .relevance(relevance)
+                .countMode(countMode)
                 .build();
 
         bookListRequestDto.checkParam();
 
-        return ResponseEntity.ok(Response.success(ResultCode.BOOK_SEARCH_LIST_OK, bookService.list(bookListRequestDto)));
+        //서적 변경이 없으면 목록 조회 없이 304
+        String eTag = bookService.getListETag(bookListRequestDto);
+        if(webRequest.checkNotModified(eTag)) return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(Response.success(ResultCode.BOOK_SEARCH_LIST_OK, bookService.list(bookListRequestDto)));
+    }
+
+    @GetMapping(value = "/v1/book/facets")
+    @Operation(summary = "서적 건수 집계", description = "리스트 조회와 같은 조건(기간 포함)으로 카테고리별, 상태별 서적 수를 한번에 내려준다. 카테고리별 건수는 카테고리 조건, 상태별 건수는 상태 조건을 제외하고 센다.")
+    public ResponseEntity<Response<BookFacetResponseDto>> facets(
+            @RequestParam(required = false) List<CategoryCode> categoryCodeList
+            ,@RequestParam(required = false) StatusCode statusCode
+            ,@RequestParam(required = false) String author
+            ,@RequestParam(required = false) String name
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate regDateFrom
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate regDateTo
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modDateFrom
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modDateTo
+    ){
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .categoryCodeList(categoryCodeList)
+                .statusCode(statusCode)
+                .author(author)
+                .name(name)
+                .regDateFrom(regDateFrom)
+                .regDateTo(regDateTo)
+                .modDateFrom(modDateFrom)
+                .modDateTo(modDateTo)
+                .build();
+
+        bookListRequestDto.checkSearchParam();
+
+        return ResponseEntity.ok(Response.success(ResultCode.BOOK_FACET_OK, bookFacetService.facets(bookListRequestDto)));
+    }
+
+    @GetMapping(value = "/v1/book/suggest")
+    @Operation(summary = "서적 자동완성", description = "제목, 지은이가 query로 시작하는(단어 시작 포함) 항목을 size개 내려준다. 초성(ㅎㅂㅇㄹㅅ)이나 초성이 섞인 검색어(흑ㅂ)도 찾는다.")
+    public ResponseEntity<Response<List<BookSuggestDto>>> suggest(
+            @RequestParam String query
+            ,@RequestParam(required = false, defaultValue = "10") Integer size
+    ){
+        return ResponseEntity.ok(Response.success(ResultCode.BOOK_SUGGEST_OK, bookSuggestService.suggest(query, size)));
+    }
+
+    @GetMapping(value = "/v1/book/search")
+    @Operation(summary = "서적 오타 허용 검색", description = "제목, 지은이 또는 그 안의 단어와 자모 단위 편집 거리가 distance 이하인 서적을 거리순으로 내려준다. distance를 생략하면 검색어 길이에 따라 1 또는 2")
+    public ResponseEntity<Response<BookListResponseDto>> search(
+            @RequestParam String query
+            ,@RequestParam(required = false) Integer distance
+            ,@RequestParam(required = false, defaultValue = "1") Integer pageNumber
+            ,@RequestParam(required = false, defaultValue = "10") Integer pageSize
+    ){
+
+        BookFuzzySearchRequestDto bookFuzzySearchRequestDto = BookFuzzySearchRequestDto.builder()
+                .query(query)
+                .distance(distance)
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .build();
+
+        return ResponseEntity.ok(Response.success(ResultCode.BOOK_FUZZY_SEARCH_OK, bookFuzzySearchService.search(bookFuzzySearchRequestDto)));
+    }
+
+    @GetMapping(value = "/v1/book/export")
+    @Operation(summary = "서적 export", description = "리스트 조회와 같은 조건(기간 포함)으로 전체 서적을 CSV 또는 NDJSON으로 내려준다.")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) List<CategoryCode> categoryCodeList
+            ,@RequestParam(required = false) StatusCode statusCode
+            ,@RequestParam(required = false) String author
+            ,@RequestParam(required = false) String name
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate regDateFrom
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate regDateTo
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modDateFrom
+            ,@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate modDateTo
+            ,@RequestParam(required = false, defaultValue = "csv") ExportFormat format
+    ){
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .categoryCodeList(categoryCodeList)
+                .statusCode(statusCode)
+                .author(author)
+                .name(name)
+                .regDateFrom(regDateFrom)
+                .regDateTo(regDateTo)
+                .modDateFrom(modDateFrom)
+                .modDateTo(modDateTo)
+                .build();
+
+        bookListRequestDto.checkSearchParam();
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(format.getContentType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("book." + format.name()).build().toString())
+                .body(outputStream -> bookExportService.export(bookListRequestDto, format, outputStream));
     }
 
     @PutMapping(value = "/v1/book")
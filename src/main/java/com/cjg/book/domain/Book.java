@@ -1,9 +1,12 @@
 package com.cjg.book.domain;
 
 
+import com.cjg.book.config.jpa.IdSequenceInitializer;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.time.LocalDateTime;
 
@@ -13,11 +16,36 @@ import java.time.LocalDateTime;
 @Setter
 @AllArgsConstructor(access= AccessLevel.PRIVATE)
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+/*
+삭제는 DELETED 표시만 하고(BookRepository.markDeleted), 실제 행은 BookPurgeJob이 나중에 지운다.
+모든 JPA 조회에는 DELETED = 0 조건이 붙으므로 인덱스는 모두 DELETED로 시작한다.
+카테고리 조건은 일치하는 CATEGORY_MASK 값의 IN 조건이므로 count는 (DELETED, CATEGORY_MASK, STATUS) 인덱스 범위로 읽는다.(상태 조건 포함)
+목록 정렬(SortCode)마다 (정렬 컬럼, BOOK_ID) 순서 그대로 읽는 인덱스와 상태 조건이 앞에 붙은 인덱스
+정렬 인덱스 끝에 CATEGORY_MASK를 두어 카테고리 조건 목록도 정렬 순서대로 읽으면서 인덱스 안에서 거른다.(테이블을 읽지 않음)
+CATEGORY_MASK로 시작하는 정렬 인덱스는 IN 값(카테고리 1개에 최대 64개)마다 범위가 나뉘어 정렬 순서로 읽을 수 없으므로 두지 않는다.
+대신 깊은 offset 페이지는 건너뛰는 행 / 카테고리 비율만큼 인덱스를 읽는다.(깊은 페이지는 커서 페이징 사용)
+등록일, 수정일 범위 조건은 같은 컬럼 정렬이면 해당 인덱스의 범위로 읽는다.
+다른 컬럼으로 정렬하면 범위 조건 인덱스로 읽은 행만 정렬한다.
+*/
+@Table(indexes = {
+        @Index(name = "idx_book_deleted_book_id", columnList = "DELETED, BOOK_ID"),
+        @Index(name = "idx_book_deleted_category_mask_status", columnList = "DELETED, CATEGORY_MASK, STATUS"),
+        @Index(name = "idx_book_deleted_reg_date_book_id_category_mask", columnList = "DELETED, REG_DATE, BOOK_ID, CATEGORY_MASK"),
+        @Index(name = "idx_book_deleted_mod_date_book_id_category_mask", columnList = "DELETED, MOD_DATE, BOOK_ID, CATEGORY_MASK"),
+        @Index(name = "idx_book_deleted_name_sort_key_book_id_category_mask", columnList = "DELETED, NAME_SORT_KEY, BOOK_ID, CATEGORY_MASK"),
+        @Index(name = "idx_book_deleted_author_sort_key_book_id_category_mask", columnList = "DELETED, AUTHOR_SORT_KEY, BOOK_ID, CATEGORY_MASK"),
+        @Index(name = "idx_book_deleted_status_reg_date_book_id_category_mask", columnList = "DELETED, STATUS, REG_DATE, BOOK_ID, CATEGORY_MASK"),
+        @Index(name = "idx_book_deleted_status_mod_date_book_id_category_mask", columnList = "DELETED, STATUS, MOD_DATE, BOOK_ID, CATEGORY_MASK"),
+        @Index(name = "idx_book_deleted_status_name_sort_key_book_id_category_mask", columnList = "DELETED, STATUS, NAME_SORT_KEY, BOOK_ID, CATEGORY_MASK"),
+        @Index(name = "idx_book_deleted_status_author_sort_key_book_id_category_mask", columnList = "DELETED, STATUS, AUTHOR_SORT_KEY, BOOK_ID, CATEGORY_MASK")
+})
+@SQLRestriction("DELETED = 0")
 public class Book {
 
     @Id
     @Column(name="BOOK_ID")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = IdSequenceInitializer.ALLOCATION_SIZE)
     private Long bookId;
 
     @Column(nullable = false, length = 50)
@@ -26,12 +54,43 @@ public class Book {
     @Column(nullable = false, length = 50)
     private String name;
 
-    @Column(nullable = false, length = 10)
+    @Column(name = "STATUS", nullable = false, length = 10)
     private String status;
 
     @CreationTimestamp
+    @Column(name = "REG_DATE")
     private LocalDateTime regDate;
 
+    @Column(name = "MOD_DATE")
     private LocalDateTime modDate;
 
+    //정렬용 비정규화 컬럼(BookSortKey). 저장, 수정시 계산하고 컬럼 추가 전 서적은 BookRepairJob이 백필한다.
+    @Column(name = "NAME_SORT_KEY", length = BookSortKey.MAX_LENGTH)
+    private byte[] nameSortKey;
+
+    @Column(name = "AUTHOR_SORT_KEY", length = BookSortKey.MAX_LENGTH)
+    private byte[] authorSortKey;
+
+    //카테고리 조회 조건용 비정규화 컬럼(CategoryCode.getBit()의 합). 원본은 book_category이며 BookRepairJob이 어긋난 값을 보정한다.
+    @Column(name = "CATEGORY_MASK", nullable = false)
+    @ColumnDefault("0")
+    private long categoryMask;
+
+    //삭제 표시. 표시된 서적은 조회되지 않고 BookPurgeJob이 book_category와 함께 지운다.
+    @Column(name = "DELETED", nullable = false)
+    @ColumnDefault("0")
+    private boolean deleted;
+
+    //markDeleted가 함께 올린다. 삭제 표시 전에 읽은 엔티티를 flush하면 DELETED = 0으로 되돌리지 않고 낙관적 잠금 예외로 실패한다.
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    @PrePersist
+    @PreUpdate
+    void updateSortKey(){
+        nameSortKey = BookSortKey.of(name);
+        authorSortKey = BookSortKey.of(author);
+    }
 }
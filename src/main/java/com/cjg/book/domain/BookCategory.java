@@ -1,5 +1,6 @@
 package com.cjg.book.domain;
 
+import com.cjg.book.config.jpa.IdSequenceInitializer;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -17,7 +18,8 @@ public class BookCategory {
 
     @Id
     @Column(name="BOOK_CATEGORY_ID")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_category_seq")
+    @SequenceGenerator(name = "book_category_seq", sequenceName = "book_category_seq", allocationSize = IdSequenceInitializer.ALLOCATION_SIZE)
     private Long bookCategoryId;
 
     @ManyToOne
@@ -0,0 +1,32 @@
+package com.cjg.book.domain;
+
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Locale;
+
+/*
+제목, 지은이 정렬 키
+한국어 Collator의 정렬 키를 저장 시점에 계산해 두고, DB에서는 바이트 순서(VARBINARY)로만 비교한다.
+DB collation과 상관없이 같은 순서가 되고, (정렬 키, BOOK_ID) 인덱스 순서대로 읽을 수 있다.
+대소문자는 구분하지 않는다(SECONDARY). MAX_LENGTH를 넘는 키는 앞부분만 사용한다.
+*/
+public final class BookSortKey {
+
+    public static final int MAX_LENGTH = 512;
+
+    //Collator는 스레드에 안전하지 않다.
+    private static final ThreadLocal<Collator> COLLATOR = ThreadLocal.withInitial(() -> {
+        Collator collator = Collator.getInstance(Locale.KOREAN);
+        collator.setStrength(Collator.SECONDARY);
+        return collator;
+    });
+
+    private BookSortKey(){}
+
+    public static byte[] of(String text){
+        if(text == null) return null;
+
+        byte[] key = COLLATOR.get().getCollationKey(text).toByteArray();
+        return key.length > MAX_LENGTH ? Arrays.copyOf(key, MAX_LENGTH) : key;
+    }
+}
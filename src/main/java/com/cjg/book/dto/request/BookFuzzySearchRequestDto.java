@@ -0,0 +1,41 @@
+package com.cjg.book.dto.request;
+
+import com.cjg.book.code.ResultCode;
+import com.cjg.book.exception.CustomException;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Builder
+@Getter
+@ToString
+public class BookFuzzySearchRequestDto {
+
+    private static final int MAX_QUERY_LENGTH = 50;
+
+    private String query;
+
+    //허용 편집 거리(자모 단위). null이면 검색어 길이로 정한다.
+    private Integer distance;
+
+    private Integer pageNumber;
+    private Integer pageSize;
+
+    public void checkParam(int maxDistance){
+        if(query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH){
+            throw new CustomException(ResultCode.BOOK_INVALID_QUERY);
+        }
+
+        if(distance != null && (distance < 0 || distance > maxDistance)){
+            throw new CustomException(ResultCode.BOOK_INVALID_DISTANCE);
+        }
+
+        if(pageNumber <= 0 ){
+            throw new CustomException(ResultCode.PAGE_INVALID_NUMBER);
+        }
+
+        if(pageSize <= 0 ){
+            throw new CustomException(ResultCode.PAGE_INVALID_SIZE);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.cjg.book.dto.request;
+
+import com.cjg.book.code.ResultCode;
+import com.cjg.book.exception.CustomException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/*
+커서 페이징용 연속 토큰
+마지막으로 조회한 서적의 (regDate, bookId)를 담고, 클라이언트에는 Base64(URL safe)로 인코딩된 값만 노출한다.
+*/
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookListCursor {
+
+    private static final String DELIMITER = "|";
+
+    private final LocalDateTime regDate;
+    private final Long bookId;
+
+    public String encode(){
+        String raw = regDate.toString() + DELIMITER + bookId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookListCursor decode(String token){
+        try{
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int index = raw.lastIndexOf(DELIMITER);
+            return new BookListCursor(LocalDateTime.parse(raw.substring(0, index)), Long.parseLong(raw.substring(index+1)));
+        }catch(RuntimeException e){
+            throw new CustomException(ResultCode.PAGE_INVALID_CURSOR);
+        }
+    }
+}
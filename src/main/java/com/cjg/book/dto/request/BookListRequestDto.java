@@ -2,13 +2,16 @@ package com.cjg.book.dto.request;
 
 
 import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.CountMode;
 import com.cjg.book.code.ResultCode;
+import com.cjg.book.code.SortCode;
 import com.cjg.book.code.StatusCode;
 import com.cjg.book.exception.CustomException;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.ToString;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Builder
@@ -21,10 +24,58 @@ public class BookListRequestDto {
     private String name;
     private StatusCode statusCode;
 
+    //등록일, 수정일 범위(시작일, 종료일 모두 포함)
+    private LocalDate regDateFrom;
+    private LocalDate regDateTo;
+    private LocalDate modDateFrom;
+    private LocalDate modDateTo;
+
+    //null이면 regDate_desc
+    private SortCode sort;
+
+    //지은이, 제목 검색시 관련도순 정렬
+    private Boolean relevance;
+
     private Integer pageNumber;
     private Integer pageSize;
 
+    //offset 페이징의 전체 건수 계산 방식. null이면 exact
+    private CountMode countMode;
+
+    //null이면 offset 페이징, 빈 값이면 커서 페이징의 첫 페이지
+    private String cursor;
+
+    public boolean isCursorMode(){
+        return cursor != null;
+    }
+
+    public SortCode getSortOrDefault(){
+        return sort == null ? SortCode.regDate_desc : sort;
+    }
+
+    public boolean hasDateRange(){
+        return regDateFrom != null || regDateTo != null || modDateFrom != null || modDateTo != null;
+    }
+
     public void checkParam(){
+        checkSearchParam();
+
+        if(pageNumber <= 0 ){
+            throw new CustomException(ResultCode.PAGE_INVALID_NUMBER);
+        }
+
+        if(pageSize <= 0 ){
+            throw new CustomException(ResultCode.PAGE_INVALID_SIZE);
+        }
+
+        //커서는 (regDate, bookId) 위치이므로 다른 정렬과 함께 쓸 수 없다.
+        if(isCursorMode() && getSortOrDefault() != SortCode.regDate_desc){
+            throw new CustomException(ResultCode.PAGE_INVALID_SORT);
+        }
+    }
+
+    //페이지 정보 없이 검색 조건만 사용하는 경우(export, facets)
+    public void checkSearchParam(){
         if(author != null && author.isBlank()){
             throw new CustomException(ResultCode.BOOK_INVALID_AUTHOR);
         }
@@ -33,12 +84,12 @@ public class BookListRequestDto {
             throw new CustomException(ResultCode.BOOK_INVALID_NAME);
         }
 
-        if(pageNumber <= 0 ){
-            throw new CustomException(ResultCode.PAGE_INVALID_NUMBER);
+        if(isReversed(regDateFrom, regDateTo) || isReversed(modDateFrom, modDateTo)){
+            throw new CustomException(ResultCode.BOOK_INVALID_DATE_RANGE);
         }
+    }
 
-        if(pageSize <= 0 ){
-            throw new CustomException(ResultCode.PAGE_INVALID_SIZE);
-        }
+    private static boolean isReversed(LocalDate from, LocalDate to){
+        return from != null && to != null && from.isAfter(to);
     }
 }
@@ -0,0 +1,13 @@
+package com.cjg.book.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookBulkFailDto {
+    private long lineNumber;
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.cjg.book.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+@Setter
+@Getter
+@Builder
+@ToString
+public class BookBulkResponseDto {
+    long totalCount;
+    long successCount;
+    long failCount;
+
+    //실패 사유는 앞에서부터 book.bulk.max-fail-report 건까지만 담는다.
+    List<BookBulkFailDto> failList;
+}
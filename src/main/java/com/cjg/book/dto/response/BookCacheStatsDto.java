@@ -0,0 +1,27 @@
+package com.cjg.book.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@Builder
+@ToString
+public class BookCacheStatsDto {
+    private boolean enabled;
+
+    //사용하지 않는 단계는 null
+    private Tier dto;
+    private Tier json;
+
+    @Getter
+    @Builder
+    @ToString
+    public static class Tier {
+        private long size;
+        private long hitCount;
+        private long missCount;
+        private long evictionCount;
+        private double hitRate;
+    }
+}
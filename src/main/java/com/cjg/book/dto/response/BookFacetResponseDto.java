@@ -0,0 +1,23 @@
+package com.cjg.book.dto.response;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.StatusCode;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Map;
+
+@Getter
+@Builder
+@ToString
+public class BookFacetResponseDto {
+    //모든 조건을 만족하는 서적 수
+    private long totalCount;
+
+    //카테고리 조건을 제외한 나머지 조건에서 카테고리별 서적 수
+    private Map<CategoryCode, Long> categoryCountMap;
+
+    //상태 조건을 제외한 나머지 조건에서 상태별 서적 수
+    private Map<StatusCode, Long> statusCountMap;
+}
@@ -1,5 +1,6 @@
 package com.cjg.book.dto.response;
 
+import com.cjg.book.code.CountMode;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -16,6 +17,9 @@ public class BookListResponseDto {
     int pageNumber;
     int totalPage;
     Long totalCount;
+    //totalCount, totalPage를 구한 방식. 커서 페이징은 null
+    CountMode countMode;
     String nextPage;
     String prevPage;
+    String nextCursor;
 }
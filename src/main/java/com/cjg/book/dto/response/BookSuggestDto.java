@@ -0,0 +1,19 @@
+package com.cjg.book.dto.response;
+
+import com.cjg.book.code.SuggestType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class BookSuggestDto {
+    private SuggestType type;
+    private String text;
+
+    //같은 제목/지은이를 가진 서적 수
+    private long bookCount;
+}
@@ -0,0 +1,34 @@
+package com.cjg.book.event;
+
+import com.cjg.book.index.BookDocument;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+//서적 저장/수정/삭제 이벤트. 트랜잭션 커밋 이후 색인 등 부가 저장소를 갱신하는데 사용한다.
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookChangedEvent {
+
+    public enum Type { SAVE, MODIFY, DELETE }
+
+    private final Type type;
+    private final long bookId;
+
+    //삭제 이벤트일 때는 null
+    private final BookDocument document;
+
+    public static BookChangedEvent saved(BookDocument document){
+        return new BookChangedEvent(Type.SAVE, document.getBookId(), document);
+    }
+
+    public static BookChangedEvent modified(BookDocument document){
+        return new BookChangedEvent(Type.MODIFY, document.getBookId(), document);
+    }
+
+    public static BookChangedEvent deleted(long bookId){
+        return new BookChangedEvent(Type.DELETE, bookId, null);
+    }
+}
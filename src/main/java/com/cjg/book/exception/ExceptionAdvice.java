@@ -4,6 +4,7 @@ package com.cjg.book.exception;
 
 import com.cjg.book.code.ResultCode;
 import com.cjg.book.response.Response;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -47,4 +48,11 @@ public class ExceptionAdvice {
                 .body(Response.fail(ResultCode.BOOK_INVALID_PARAM));
     }
 
+    //동시 수정, 수정 중 삭제(Book.version 불일치)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Response> OptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(ResultCode.BOOK_CONFLICT.getHttpStatus())
+                .body(Response.fail(ResultCode.BOOK_CONFLICT));
+    }
+
 }
@@ -0,0 +1,105 @@
+package com.cjg.book.index;
+
+import java.util.*;
+
+/*
+BK-tree : 편집 거리(Levenshtein) 기준 근사 검색 트리
+자식은 부모와의 거리별로 나눠 두고, 삼각 부등식에 따라 |d - k| ~ d + k 거리의 자식만 내려가므로
+사전 전체와 거리를 계산하지 않는다.
+삭제를 지원하지 않으므로 사용하는 쪽에서 지운 키를 걸러내고, 필요하면 clear 후 다시 만든다.
+동기화하지 않으므로 사용하는 쪽에서 잠금을 관리한다.
+*/
+class BkTree {
+
+    private Node root;
+    private int size;
+
+    //이미 있는 키면 false
+    boolean add(String key){
+        if(root == null){
+            root = new Node(key);
+            size++;
+            return true;
+        }
+
+        Node node = root;
+        while(true){
+            int distance = distance(key, node.key);
+            if(distance == 0) return false;
+
+            Node child = node.children.get(distance);
+            if(child == null){
+                node.children.put(distance, new Node(key));
+                size++;
+                return true;
+            }
+            node = child;
+        }
+    }
+
+    //query와 거리가 maxDistance 이하인 키
+    List<Match> search(String query, int maxDistance){
+        List<Match> result = new ArrayList<>();
+        if(root == null) return result;
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while(!stack.isEmpty()){
+            Node node = stack.pop();
+            int distance = distance(query, node.key);
+            if(distance <= maxDistance) result.add(new Match(node.key, distance));
+
+            for(int d = Math.max(1, distance - maxDistance); d <= distance + maxDistance; d++){
+                Node child = node.children.get(d);
+                if(child != null) stack.push(child);
+            }
+        }
+        return result;
+    }
+
+    void clear(){
+        root = null;
+        size = 0;
+    }
+
+    int size(){
+        return size;
+    }
+
+    //두 행만 사용하는 Levenshtein 거리
+    static int distance(String a, String b){
+        if(a.length() < b.length()){
+            String temp = a;
+            a = b;
+            b = temp;
+        }
+
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for(int j=0; j<=b.length(); j++) prev[j] = j;
+
+        for(int i=1; i<=a.length(); i++){
+            curr[0] = i;
+            char c = a.charAt(i - 1);
+            for(int j=1; j<=b.length(); j++){
+                int cost = c == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] temp = prev;
+            prev = curr;
+            curr = temp;
+        }
+        return prev[b.length()];
+    }
+
+    record Match(String key, int distance) {}
+
+    private static class Node {
+        private final String key;
+        private final Map<Integer, Node> children = new HashMap<>();
+
+        Node(String key){
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.cjg.book.index;
+
+import com.cjg.book.domain.Book;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+//메모리 색인에 올리는 서적 정보
+@Getter
+@Builder
+@ToString
+@AllArgsConstructor
+public class BookDocument {
+
+    private final long bookId;
+    private final String author;
+    private final String name;
+    private final String status;
+    private final long categoryMask;
+
+    public static BookDocument of(Book book){
+        return BookDocument.builder()
+                .bookId(book.getBookId())
+                .author(book.getAuthor())
+                .name(book.getName())
+                .status(book.getStatus())
+                .categoryMask(book.getCategoryMask())
+                .build();
+    }
+}
@@ -0,0 +1,157 @@
+package com.cjg.book.index;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.StatusCode;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+카테고리별, 상태별 서적ID 비트맵 색인
+조건에 맞는 서적 집합을 비트맵 AND/OR로 만들고 각 카테고리, 상태 비트맵과의 교집합 크기로 건수를 센다.
+SQL GROUP BY 없이 모든 카테고리와 상태의 건수를 한번에 구할 수 있다.
+비트맵은 int 단위이므로 bookId가 int 범위를 넘으면 ArithmeticException
+*/
+@Component
+public class BookFacetIndex implements BookIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap allBitmap = new RoaringBitmap();
+    private final Map<CategoryCode, RoaringBitmap> categoryBitmapMap = new EnumMap<>(CategoryCode.class);
+    private final Map<StatusCode, RoaringBitmap> statusBitmapMap = new EnumMap<>(StatusCode.class);
+
+    private volatile boolean ready = false;
+
+    public BookFacetIndex(){
+        for(CategoryCode categoryCode : CategoryCode.values()) categoryBitmapMap.put(categoryCode, new RoaringBitmap());
+        for(StatusCode statusCode : StatusCode.values()) statusBitmapMap.put(statusCode, new RoaringBitmap());
+    }
+
+    @Override
+    public void put(BookDocument document){
+        int bookId = toIntId(document.getBookId());
+
+        lock.writeLock().lock();
+        try{
+            removeInternal(bookId);
+            allBitmap.add(bookId);
+
+            RoaringBitmap statusBitmap = document.getStatus() == null ? null : statusBitmapMap.get(StatusCode.valueOf(document.getStatus()));
+            if(statusBitmap != null) statusBitmap.add(bookId);
+
+            for(Map.Entry<CategoryCode, RoaringBitmap> entry : categoryBitmapMap.entrySet()){
+                if((document.getCategoryMask() & entry.getKey().getBit()) != 0) entry.getValue().add(bookId);
+            }
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long bookId){
+        lock.writeLock().lock();
+        try{
+            removeInternal(toIntId(bookId));
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear(){
+        lock.writeLock().lock();
+        try{
+            ready = false;
+            allBitmap.clear();
+            categoryBitmapMap.values().forEach(RoaringBitmap::clear);
+            statusBitmapMap.values().forEach(RoaringBitmap::clear);
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    //전체 적재가 끝나면 연속된 ID 구간을 run 컨테이너로 압축한다.
+    @Override
+    public void markReady(){
+        lock.writeLock().lock();
+        try{
+            allBitmap.runOptimize();
+            categoryBitmapMap.values().forEach(RoaringBitmap::runOptimize);
+            statusBitmapMap.values().forEach(RoaringBitmap::runOptimize);
+            ready = true;
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady(){
+        return ready;
+    }
+
+    /*
+    조건별 건수
+    textCandidateSet은 지은이/제목 조건을 만족하는 서적ID(조건이 없으면 null)
+    카테고리별 건수는 카테고리 조건을 뺀 나머지 조건으로, 상태별 건수는 상태 조건을 뺀 나머지 조건으로 센다.
+    그래야 이미 선택한 카테고리 외의 다른 카테고리를 골랐을 때의 건수를 함께 보여줄 수 있다.
+    */
+    public FacetCount count(Set<Long> textCandidateSet, List<CategoryCode> categoryCodeList, StatusCode statusCode){
+        RoaringBitmap textBitmap = textCandidateSet == null ? null : toBitmap(textCandidateSet);
+
+        lock.readLock().lock();
+        try{
+            RoaringBitmap categoryBitmap = categoryFilter(categoryCodeList);
+            RoaringBitmap statusBitmap = statusCode == null ? null : statusBitmapMap.get(statusCode);
+
+            RoaringBitmap categoryBase = and(allBitmap, textBitmap, statusBitmap);
+            RoaringBitmap statusBase = and(allBitmap, textBitmap, categoryBitmap);
+
+            long totalCount = categoryBitmap == null ? categoryBase.getLongCardinality() : RoaringBitmap.andCardinality(categoryBase, categoryBitmap);
+
+            Map<CategoryCode, Long> categoryCountMap = new EnumMap<>(CategoryCode.class);
+            categoryBitmapMap.forEach((code, bitmap) -> categoryCountMap.put(code, (long) RoaringBitmap.andCardinality(categoryBase, bitmap)));
+
+            Map<StatusCode, Long> statusCountMap = new EnumMap<>(StatusCode.class);
+            statusBitmapMap.forEach((code, bitmap) -> statusCountMap.put(code, (long) RoaringBitmap.andCardinality(statusBase, bitmap)));
+
+            return new FacetCount(totalCount, categoryCountMap, statusCountMap);
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(int bookId){
+        if(!allBitmap.checkedRemove(bookId)) return;
+        categoryBitmapMap.values().forEach(bitmap -> bitmap.remove(bookId));
+        statusBitmapMap.values().forEach(bitmap -> bitmap.remove(bookId));
+    }
+
+    //요청한 카테고리 중 하나라도 있는 서적. 조건이 없으면 null
+    private RoaringBitmap categoryFilter(List<CategoryCode> categoryCodeList){
+        if(categoryCodeList == null || categoryCodeList.isEmpty()) return null;
+        return RoaringBitmap.or(categoryCodeList.stream().map(categoryBitmapMap::get).iterator());
+    }
+
+    //null인 조건은 건너뛴다. 조건이 하나도 없으면 base를 그대로 반환하므로 결과를 수정하면 안된다.
+    private static RoaringBitmap and(RoaringBitmap base, RoaringBitmap... filters){
+        RoaringBitmap result = base;
+        for(RoaringBitmap filter : filters){
+            if(filter != null) result = RoaringBitmap.and(result, filter);
+        }
+        return result;
+    }
+
+    private static RoaringBitmap toBitmap(Set<Long> bookIdSet){
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for(Long bookId : bookIdSet) bitmap.add(toIntId(bookId));
+        return bitmap;
+    }
+
+    private static int toIntId(long bookId){
+        return Math.toIntExact(bookId);
+    }
+
+    public record FacetCount(long totalCount, Map<CategoryCode, Long> categoryCountMap, Map<StatusCode, Long> statusCountMap) {}
+}
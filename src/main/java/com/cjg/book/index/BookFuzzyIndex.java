@@ -0,0 +1,166 @@
+package com.cjg.book.index;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+제목, 지은이 오타 허용 검색 색인
+제목/지은이 전체와 그 안의 단어(2글자 이상)를 자모로 풀어쓴 키로 BK-tree에 넣고, 편집 거리가 허용 범위 안인 키의 서적을 찾는다.
+자모 단위로 비교하므로 "흑백요리서"처럼 받침 없는 모음 하나가 틀린 경우 거리가 1이다.
+BK-tree는 삭제를 지원하지 않으므로 서적이 모두 빠진 키는 keyBookMap에서만 지우고 검색 결과에서 걸러낸다.
+지운 키가 쌓이면 남은 키로 트리를 다시 만든다.
+*/
+@Component
+public class BookFuzzyIndex implements BookIndex {
+
+    private static final int MIN_WORD_LENGTH = 2;
+
+    //검색어(자모)가 이 길이 이하이면 기본 허용 거리 1, 길면 2
+    private static final int SHORT_QUERY_LENGTH = 5;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BkTree bkTree = new BkTree();
+    private final Map<String, Set<Long>> keyBookMap = new HashMap<>();
+    private final Map<Long, Set<String>> bookKeyMap = new HashMap<>();
+
+    private volatile boolean ready = false;
+
+    @Value("${book.fuzzy.max-distance:2}")
+    private int maxDistance = 2;
+
+    //거리순으로 정렬한 뒤 이 건수까지만 결과로 사용한다.
+    @Value("${book.fuzzy.max-candidate-size:1000}")
+    private int maxCandidateSize = 1000;
+
+    @Override
+    public void put(BookDocument document){
+        Set<String> keySet = new HashSet<>();
+        addKeys(keySet, document.getName());
+        addKeys(keySet, document.getAuthor());
+
+        lock.writeLock().lock();
+        try{
+            removeInternal(document.getBookId());
+            bookKeyMap.put(document.getBookId(), keySet);
+            for(String key : keySet){
+                keyBookMap.computeIfAbsent(key, k -> new HashSet<>()).add(document.getBookId());
+                bkTree.add(key);
+            }
+            compactIfNeeded();
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long bookId){
+        lock.writeLock().lock();
+        try{
+            removeInternal(bookId);
+            compactIfNeeded();
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear(){
+        lock.writeLock().lock();
+        try{
+            ready = false;
+            bkTree.clear();
+            keyBookMap.clear();
+            bookKeyMap.clear();
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady(){
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady(){
+        return ready;
+    }
+
+    public int getMaxDistance(){
+        return maxDistance;
+    }
+
+    /*
+    제목/지은이 또는 그 안의 단어와 편집 거리가 distance 이하인 서적
+    distance가 null이면 검색어 길이로 정한다. 서적별로 가장 가까운 거리를 사용하며 거리순, 최신 서적(bookId 역순)순
+    */
+    public List<FuzzyMatch> search(String query, Integer distance){
+        String queryKey = toKey(query);
+        if(queryKey.isEmpty()) return List.of();
+
+        int limit = Math.min(maxDistance, distance != null ? distance : queryKey.length() <= SHORT_QUERY_LENGTH ? 1 : 2);
+
+        lock.readLock().lock();
+        try{
+            Map<Long, Integer> distanceMap = new HashMap<>();
+            for(BkTree.Match match : bkTree.search(queryKey, limit)){
+                //키 전체를 바꿔야 하는 거리면 일치로 보지 않는다.
+                if(match.distance() >= match.key().length()) continue;
+
+                Set<Long> bookIdSet = keyBookMap.get(match.key());
+                if(bookIdSet == null) continue;
+                for(Long bookId : bookIdSet) distanceMap.merge(bookId, match.distance(), Math::min);
+            }
+
+            return distanceMap.entrySet().stream()
+                    .map(e -> new FuzzyMatch(e.getKey(), e.getValue()))
+                    .sorted(Comparator.comparingInt(FuzzyMatch::distance).thenComparing(FuzzyMatch::bookId, Comparator.reverseOrder()))
+                    .limit(maxCandidateSize)
+                    .toList();
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(long bookId){
+        Set<String> keySet = bookKeyMap.remove(bookId);
+        if(keySet == null) return;
+
+        for(String key : keySet){
+            Set<Long> bookIdSet = keyBookMap.get(key);
+            if(bookIdSet == null) continue;
+            bookIdSet.remove(bookId);
+            if(bookIdSet.isEmpty()) keyBookMap.remove(key);
+        }
+    }
+
+    //트리의 키가 살아있는 키의 2배를 넘으면 다시 만든다.
+    private void compactIfNeeded(){
+        if(bkTree.size() <= keyBookMap.size() * 2) return;
+
+        bkTree.clear();
+        keyBookMap.keySet().forEach(bkTree::add);
+    }
+
+    //전체 문자열과 2글자 이상인 단어
+    private static void addKeys(Set<String> keySet, String text){
+        if(text == null) return;
+
+        String normalized = BookTextIndex.normalize(text).strip();
+        if(normalized.isEmpty()) return;
+        keySet.add(Hangul.decompose(normalized));
+
+        for(String word : normalized.split("\\s+")){
+            if(word.codePointCount(0, word.length()) >= MIN_WORD_LENGTH) keySet.add(Hangul.decompose(word));
+        }
+    }
+
+    static String toKey(String text){
+        return Hangul.decompose(BookTextIndex.normalize(text).strip());
+    }
+
+    public record FuzzyMatch(long bookId, int distance) {}
+}
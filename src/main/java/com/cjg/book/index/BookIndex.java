@@ -0,0 +1,19 @@
+package com.cjg.book.index;
+
+/*
+서적 메모리 색인 공통 인터페이스
+기동 시 BookIndexUpdater가 clear > put... > markReady 순서로 전체를 다시 만들고,
+이후에는 서적 저장/수정/삭제가 커밋된 뒤 put, remove로 갱신한다.
+*/
+public interface BookIndex {
+
+    void put(BookDocument document);
+
+    void remove(long bookId);
+
+    void clear();
+
+    void markReady();
+
+    boolean isReady();
+}
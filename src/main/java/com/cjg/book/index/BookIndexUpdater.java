@@ -0,0 +1,103 @@
+package com.cjg.book.index;
+
+import com.cjg.book.domain.Book;
+import com.cjg.book.event.BookChangedEvent;
+import com.cjg.book.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+메모리 색인 갱신
+기동이 끝나면 DB 전체를 bookId 순서로 나눠 읽어 색인을 다시 만들고,
+서적 저장/수정/삭제는 커밋된 뒤에만 반영하여 롤백된 변경이 색인에 남지 않도록 한다.
+다시 만드는 동안 커밋된 변경은 이미 읽은 chunk보다 새 값이므로 모아 두었다가 전체 적재가 끝난 뒤 순서대로 반영한다.
+*/
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookIndexUpdater {
+
+    private final List<BookIndex> bookIndexList;
+    private final BookRepository bookRepository;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    //다시 만드는 중에만 null이 아니다.
+    private List<BookChangedEvent> pendingEventList;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild(){
+        long start = System.currentTimeMillis();
+
+        lock.lock();
+        try{
+            pendingEventList = new ArrayList<>();
+        }finally{
+            lock.unlock();
+        }
+
+        long count = 0L;
+        boolean loaded = false;
+        try{
+            bookIndexList.forEach(BookIndex::clear);
+
+            long lastBookId = 0L;
+            while(true){
+                List<Book> bookList = bookRepository.findTop1000ByBookIdGreaterThanOrderByBookIdAsc(lastBookId);
+                if(bookList.isEmpty()) break;
+
+                for(Book book : bookList){
+                    BookDocument document = BookDocument.of(book);
+                    bookIndexList.forEach(index -> index.put(document));
+                }
+
+                lastBookId = bookList.getLast().getBookId();
+                count += bookList.size();
+            }
+            loaded = true;
+        }finally{
+            //적재에 실패해도 모아 둔 변경은 반영하고 이후 변경은 바로 반영한다.
+            lock.lock();
+            try{
+                pendingEventList.forEach(this::apply);
+                pendingEventList = null;
+                if(loaded) bookIndexList.forEach(BookIndex::markReady);
+            }finally{
+                lock.unlock();
+            }
+        }
+
+        log.info("book index rebuilt : {} books, {} ms", count, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event){
+        lock.lock();
+        try{
+            if(pendingEventList != null){
+                pendingEventList.add(event);
+                return;
+            }
+        }finally{
+            lock.unlock();
+        }
+
+        apply(event);
+    }
+
+    private void apply(BookChangedEvent event){
+        if(event.getType() == BookChangedEvent.Type.DELETE){
+            bookIndexList.forEach(index -> index.remove(event.getBookId()));
+        }else{
+            bookIndexList.forEach(index -> index.put(event.getDocument()));
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.cjg.book.index;
+
+import com.cjg.book.code.SuggestType;
+import com.cjg.book.dto.response.BookSuggestDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/*
+제목, 지은이 자동완성 색인
+서로 다른 제목/지은이(Term)마다 전체 문자열과 띄어쓰기 뒤 단어 시작 위치부터의 문자열을 키로 압축 트라이에 넣는다.
+초성 트라이에는 같은 키를 초성으로 바꿔 넣으므로 "ㅎㅂㅇㄹㅅ"로 "흑백요리사"를 찾을 수 있다.
+초성과 완성 글자가 섞인 검색어("흑ㅂ")는 초성 트라이를 읽으면서 완성 글자가 원문과 같은 후보만 모은다.
+*/
+@Component
+public class BookSuggestIndex implements BookIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RadixTree<Posting> textTree = new RadixTree<>();
+    private final RadixTree<Posting> chosungTree = new RadixTree<>();
+    private final Map<Term, Set<Long>> termBookMap = new HashMap<>();
+    private final Map<Long, List<Term>> bookTermMap = new HashMap<>();
+
+    private volatile boolean ready = false;
+
+    //순위를 매기기 전에 트라이에서 읽는 최대 후보 수(검색어가 짧아도 읽는 양을 제한한다)
+    @Value("${book.suggest.max-candidate-size:1000}")
+    private int maxCandidateSize = 1000;
+
+    @Override
+    public void put(BookDocument document){
+        List<Term> termList = new ArrayList<>(2);
+        if(document.getName() != null) termList.add(Term.of(SuggestType.name, document.getName()));
+        if(document.getAuthor() != null) termList.add(Term.of(SuggestType.author, document.getAuthor()));
+
+        lock.writeLock().lock();
+        try{
+            removeInternal(document.getBookId());
+            bookTermMap.put(document.getBookId(), termList);
+
+            for(Term term : termList){
+                Set<Long> bookIdSet = termBookMap.computeIfAbsent(term, k -> new HashSet<>());
+                if(bookIdSet.isEmpty()) index(term);
+                bookIdSet.add(document.getBookId());
+            }
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long bookId){
+        lock.writeLock().lock();
+        try{
+            removeInternal(bookId);
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear(){
+        lock.writeLock().lock();
+        try{
+            ready = false;
+            textTree.clear();
+            chosungTree.clear();
+            termBookMap.clear();
+            bookTermMap.clear();
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady(){
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady(){
+        return ready;
+    }
+
+    /*
+    검색어로 시작하는 제목/지은이 상위 size개
+    전체 문자열 앞부분 일치 > 단어 앞부분 일치, 같으면 서적 수가 많은 순, 짧은 순
+    */
+    public List<BookSuggestDto> suggest(String query, int size){
+        String normalizedQuery = BookTextIndex.normalize(query).strip();
+        if(normalizedQuery.isEmpty()) return List.of();
+
+        boolean chosung = Hangul.containsConsonant(normalizedQuery);
+
+        lock.readLock().lock();
+        try{
+            //완성 글자가 다른 후보가 최대 후보 수를 채우지 않도록 트라이를 읽으면서 거른다.
+            List<Posting> candidateList = chosung
+                    ? chosungTree.prefixSearch(Hangul.toChosung(normalizedQuery), maxCandidateSize, posting -> matchesMixed(posting, normalizedQuery))
+                    : textTree.prefixSearch(normalizedQuery, maxCandidateSize);
+
+            //같은 Term은 가장 앞쪽에서 일치한 위치만 사용한다.
+            Map<Term, Integer> offsetMap = new HashMap<>();
+            for(Posting posting : candidateList){
+                offsetMap.merge(posting.term(), posting.offset(), Math::min);
+            }
+
+            Comparator<Map.Entry<Term, Integer>> order = Comparator
+                    .comparing((Map.Entry<Term, Integer> e) -> e.getValue() > 0)
+                    .thenComparing(e -> -termBookMap.get(e.getKey()).size())
+                    .thenComparingInt(e -> e.getKey().text().length())
+                    .thenComparing(e -> e.getKey().text());
+
+            return offsetMap.entrySet().stream()
+                    .sorted(order)
+                    .limit(size)
+                    .map(e -> new BookSuggestDto(e.getKey().type(), e.getKey().text(), termBookMap.get(e.getKey()).size()))
+                    .collect(Collectors.toList());
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    //검색어의 자음은 초성으로, 나머지 글자는 그대로 원문과 비교한다.
+    private static boolean matchesMixed(Posting posting, String query){
+        String text = posting.term().normalizedText();
+        if(posting.offset() + query.length() > text.length()) return false;
+
+        for(int i=0; i<query.length(); i++){
+            char q = query.charAt(i);
+            char t = text.charAt(posting.offset() + i);
+            if(Hangul.isConsonant(q) ? Hangul.chosung(t) != q : t != q) return false;
+        }
+        return true;
+    }
+
+    private void index(Term term){
+        String text = term.normalizedText();
+        String chosung = Hangul.toChosung(text);
+        for(int offset : wordStartList(text)){
+            Posting posting = new Posting(term, offset);
+            textTree.put(text.substring(offset), posting);
+            chosungTree.put(chosung.substring(offset), posting);
+        }
+    }
+
+    private void unindex(Term term){
+        String text = term.normalizedText();
+        String chosung = Hangul.toChosung(text);
+        for(int offset : wordStartList(text)){
+            Posting posting = new Posting(term, offset);
+            textTree.remove(text.substring(offset), posting);
+            chosungTree.remove(chosung.substring(offset), posting);
+        }
+    }
+
+    private void removeInternal(long bookId){
+        List<Term> termList = bookTermMap.remove(bookId);
+        if(termList == null) return;
+
+        for(Term term : termList){
+            Set<Long> bookIdSet = termBookMap.get(term);
+            if(bookIdSet == null) continue;
+            bookIdSet.remove(bookId);
+            if(bookIdSet.isEmpty()){
+                termBookMap.remove(term);
+                unindex(term);
+            }
+        }
+    }
+
+    //문자열 시작과 공백 다음 글자 위치
+    static List<Integer> wordStartList(String text){
+        List<Integer> list = new ArrayList<>();
+        for(int i=0; i<text.length(); i++){
+            if(Character.isWhitespace(text.charAt(i))) continue;
+            if(i == 0 || Character.isWhitespace(text.charAt(i-1))) list.add(i);
+        }
+        return list;
+    }
+
+    //normalizedText는 text에서 정해지므로 equals에 포함되어도 같은 Term으로 취급된다.
+    private record Term(SuggestType type, String text, String normalizedText) {
+        static Term of(SuggestType type, String text){
+            return new Term(type, text, BookTextIndex.normalize(text));
+        }
+    }
+
+    private record Posting(Term term, int offset) {}
+}
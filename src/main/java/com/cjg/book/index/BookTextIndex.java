@@ -0,0 +1,212 @@
+package com.cjg.book.index;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+지은이, 제목 n-gram 역색인
+LIKE '%검색어%'는 인덱스를 탈 수 없으므로, 글자 단위(유니그램)와 2글자 단위(바이그램) 색인으로 후보 서적ID를 찾고
+원문에 검색어가 실제로 포함되는지 한번 더 확인한다.
+한글은 NFC로 정규화한 뒤 코드포인트 단위로 자르므로 음절 단위로 색인된다.
+*/
+@Component
+public class BookTextIndex implements BookIndex {
+
+    private static final int NGRAM_SIZE = 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FieldIndex authorIndex = new FieldIndex();
+    private final FieldIndex nameIndex = new FieldIndex();
+
+    private volatile boolean ready = false;
+
+    //후보 서적이 이 값보다 많으면 IN 조건이 오히려 비싸므로 색인을 사용하지 않는다.
+    @Value("${book.search.max-candidate-size:1000}")
+    private int maxCandidateSize = 1000;
+
+    @Override
+    public void put(BookDocument document){
+        lock.writeLock().lock();
+        try{
+            authorIndex.put(document.getBookId(), normalize(document.getAuthor()));
+            nameIndex.put(document.getBookId(), normalize(document.getName()));
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long bookId){
+        lock.writeLock().lock();
+        try{
+            authorIndex.remove(bookId);
+            nameIndex.remove(bookId);
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear(){
+        lock.writeLock().lock();
+        try{
+            ready = false;
+            authorIndex.clear();
+            nameIndex.clear();
+        }finally{
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady(){
+        ready = true;
+    }
+
+    @Override
+    public boolean isReady(){
+        return ready;
+    }
+
+    //지은이, 제목 조건을 모두 만족하는 서적ID. 색인을 사용할 수 없거나 후보가 너무 많으면 null
+    public Set<Long> search(String author, String name){
+        Set<Long> result = searchAll(author, name);
+        if(result == null || result.size() > maxCandidateSize) return null;
+        return result;
+    }
+
+    //후보 건수 제한 없이 조건을 만족하는 서적ID 전체. 색인을 사용할 수 없으면 null
+    public Set<Long> searchAll(String author, String name){
+        if(!ready) return null;
+
+        lock.readLock().lock();
+        try{
+            Set<Long> result = null;
+
+            if(StringUtils.hasText(author)){
+                result = authorIndex.search(normalize(author));
+            }
+
+            if(StringUtils.hasText(name)){
+                Set<Long> nameResult = nameIndex.search(normalize(name));
+                if(result == null) result = nameResult;
+                else result.retainAll(nameResult);
+            }
+
+            return result;
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    //관련도 점수 : 완전 일치 > 앞부분 일치 > 부분 일치 순이며, 같은 일치 유형이면 원문이 짧을수록 높다.
+    public int score(long bookId, String author, String name){
+        lock.readLock().lock();
+        try{
+            int score = 0;
+            if(StringUtils.hasText(author)) score += authorIndex.score(bookId, normalize(author));
+            if(StringUtils.hasText(name)) score += nameIndex.score(bookId, normalize(name));
+            return score;
+        }finally{
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String text){
+        return Normalizer.normalize(text, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+    }
+
+    //유니그램 + 바이그램
+    static Set<String> tokenize(String text){
+        int[] codePoints = text.codePoints().toArray();
+        Set<String> tokenSet = new HashSet<>();
+
+        for(int i=0; i<codePoints.length; i++){
+            tokenSet.add(new String(codePoints, i, 1));
+            if(i + NGRAM_SIZE <= codePoints.length){
+                tokenSet.add(new String(codePoints, i, NGRAM_SIZE));
+            }
+        }
+        return tokenSet;
+    }
+
+    //검색어 조회에 사용할 토큰. 한 글자면 유니그램, 그 이상이면 바이그램만 사용한다.
+    static Set<String> queryTokenize(String query){
+        int[] codePoints = query.codePoints().toArray();
+        if(codePoints.length < NGRAM_SIZE) return Set.of(query);
+
+        Set<String> tokenSet = new HashSet<>();
+        for(int i=0; i + NGRAM_SIZE <= codePoints.length; i++){
+            tokenSet.add(new String(codePoints, i, NGRAM_SIZE));
+        }
+        return tokenSet;
+    }
+
+    private static class FieldIndex {
+
+        private final Map<String, Set<Long>> postingMap = new HashMap<>();
+        private final Map<Long, String> textMap = new HashMap<>();
+
+        void put(long bookId, String text){
+            remove(bookId);
+            textMap.put(bookId, text);
+            for(String token : tokenize(text)){
+                postingMap.computeIfAbsent(token, k -> new HashSet<>()).add(bookId);
+            }
+        }
+
+        void remove(long bookId){
+            String text = textMap.remove(bookId);
+            if(text == null) return;
+
+            for(String token : tokenize(text)){
+                Set<Long> posting = postingMap.get(token);
+                if(posting == null) continue;
+                posting.remove(bookId);
+                if(posting.isEmpty()) postingMap.remove(token);
+            }
+        }
+
+        void clear(){
+            postingMap.clear();
+            textMap.clear();
+        }
+
+        Set<Long> search(String query){
+            List<Set<Long>> postingList = new ArrayList<>();
+            for(String token : queryTokenize(query)){
+                Set<Long> posting = postingMap.get(token);
+                if(posting == null) return new HashSet<>();
+                postingList.add(posting);
+            }
+
+            //가장 짧은 posting부터 교집합을 구한다.
+            postingList.sort(Comparator.comparingInt(Set::size));
+
+            Set<Long> result = new HashSet<>();
+            for(Long bookId : postingList.getFirst()){
+                boolean matched = true;
+                for(int i=1; i<postingList.size() && matched; i++){
+                    matched = postingList.get(i).contains(bookId);
+                }
+
+                //바이그램이 모두 있어도 연속된 문자열이 아닐 수 있으므로 원문으로 확인한다.
+                if(matched && textMap.get(bookId).contains(query)) result.add(bookId);
+            }
+            return result;
+        }
+
+        int score(long bookId, String query){
+            String text = textMap.get(bookId);
+            if(text == null || !text.contains(query)) return 0;
+
+            int matchScore = text.equals(query) ? 300 : text.startsWith(query) ? 200 : 100;
+            return matchScore + Math.max(0, 99 - (text.length() - query.length()));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.cjg.book.index;
+
+/*
+한글 음절 분해
+완성형 음절(가~힣)은 (초성 * 21 + 중성) * 28 + 종성 + 0xAC00 이므로 나눗셈으로 자모를 구한다.
+반환하는 자모는 키보드로 입력되는 호환 자모(ㄱ, ㅏ ...)이다.
+*/
+public final class Hangul {
+
+    private static final char SYLLABLE_BEGIN = '가';
+    private static final char SYLLABLE_END = '힣';
+    private static final int JUNGSUNG_COUNT = 21;
+    private static final int JONGSUNG_COUNT = 28;
+
+    private static final char[] CHOSUNG = {
+            'ㄱ', 'ㄲ', 'ㄴ', 'ㄷ', 'ㄸ', 'ㄹ', 'ㅁ', 'ㅂ', 'ㅃ', 'ㅅ', 'ㅆ', 'ㅇ', 'ㅈ', 'ㅉ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    private static final char[] JUNGSUNG = {
+            'ㅏ', 'ㅐ', 'ㅑ', 'ㅒ', 'ㅓ', 'ㅔ', 'ㅕ', 'ㅖ', 'ㅗ', 'ㅘ', 'ㅙ', 'ㅚ', 'ㅛ', 'ㅜ', 'ㅝ', 'ㅞ', 'ㅟ', 'ㅠ', 'ㅡ', 'ㅢ', 'ㅣ'
+    };
+
+    //0번은 종성 없음
+    private static final char[] JONGSUNG = {
+            0, 'ㄱ', 'ㄲ', 'ㄳ', 'ㄴ', 'ㄵ', 'ㄶ', 'ㄷ', 'ㄹ', 'ㄺ', 'ㄻ', 'ㄼ', 'ㄽ', 'ㄾ', 'ㄿ', 'ㅀ', 'ㅁ', 'ㅂ', 'ㅄ', 'ㅅ', 'ㅆ', 'ㅇ', 'ㅈ', 'ㅊ', 'ㅋ', 'ㅌ', 'ㅍ', 'ㅎ'
+    };
+
+    private Hangul(){}
+
+    public static boolean isSyllable(char c){
+        return c >= SYLLABLE_BEGIN && c <= SYLLABLE_END;
+    }
+
+    //호환 자모 자음(ㄱ~ㅎ)
+    public static boolean isConsonant(char c){
+        return c >= 'ㄱ' && c <= 'ㅎ';
+    }
+
+    //음절이면 초성, 아니면 그대로
+    public static char chosung(char c){
+        if(!isSyllable(c)) return c;
+        return CHOSUNG[(c - SYLLABLE_BEGIN) / (JUNGSUNG_COUNT * JONGSUNG_COUNT)];
+    }
+
+    //글자마다 초성으로 바꾼다. 길이가 같으므로 원문과 위치가 그대로 대응한다.
+    public static String toChosung(String text){
+        char[] chars = text.toCharArray();
+        for(int i=0; i<chars.length; i++){
+            chars[i] = chosung(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    public static boolean containsConsonant(String text){
+        for(int i=0; i<text.length(); i++){
+            if(isConsonant(text.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    //음절을 초성, 중성, 종성 자모로 풀어쓴다. 한글 음절이 아닌 글자는 그대로
+    public static String decompose(String text){
+        StringBuilder sb = new StringBuilder(text.length() * 3);
+        for(int i=0; i<text.length(); i++){
+            char c = text.charAt(i);
+            if(!isSyllable(c)){
+                sb.append(c);
+                continue;
+            }
+
+            int index = c - SYLLABLE_BEGIN;
+            sb.append(CHOSUNG[index / (JUNGSUNG_COUNT * JONGSUNG_COUNT)]);
+            sb.append(JUNGSUNG[(index % (JUNGSUNG_COUNT * JONGSUNG_COUNT)) / JONGSUNG_COUNT]);
+            char jongsung = JONGSUNG[index % JONGSUNG_COUNT];
+            if(jongsung != 0) sb.append(jongsung);
+        }
+        return sb.toString();
+    }
+}
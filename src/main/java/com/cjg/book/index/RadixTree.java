@@ -0,0 +1,139 @@
+package com.cjg.book.index;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/*
+압축 트라이(radix tree)
+자식이 하나뿐인 경로를 한 간선으로 합쳐 두므로 노드 수가 키 개수에 비례한다.
+키 하나에 여러 값을 둘 수 있고, 값이 모두 빠지면 노드를 지우고 다시 합친다.
+동기화하지 않으므로 사용하는 쪽에서 잠금을 관리한다.
+*/
+class RadixTree<V> {
+
+    private final Node<V> root = new Node<>("");
+
+    void put(String key, V value){
+        Node<V> node = root;
+        int i = 0;
+
+        while(i < key.length()){
+            Node<V> child = node.children.get(key.charAt(i));
+            if(child == null){
+                child = new Node<>(key.substring(i));
+                node.children.put(key.charAt(i), child);
+                node = child;
+                break;
+            }
+
+            int common = commonPrefixLength(child.label, key, i);
+            if(common < child.label.length()){
+                //간선 중간에서 갈라지면 공통 부분으로 새 노드를 만든다.
+                Node<V> middle = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children.put(child.label.charAt(0), child);
+                node.children.put(middle.label.charAt(0), middle);
+                child = middle;
+            }
+
+            node = child;
+            i += common;
+        }
+
+        node.values.add(value);
+    }
+
+    void remove(String key, V value){
+        if(key.isEmpty()){
+            root.values.remove(value);
+            return;
+        }
+        remove(root, key, 0, value);
+    }
+
+    private void remove(Node<V> parent, String key, int i, V value){
+        char first = key.charAt(i);
+        Node<V> child = parent.children.get(first);
+        if(child == null || !key.startsWith(child.label, i)) return;
+
+        int next = i + child.label.length();
+        if(next == key.length()) child.values.remove(value);
+        else remove(child, key, next, value);
+
+        if(!child.values.isEmpty()) return;
+
+        if(child.children.isEmpty()){
+            parent.children.remove(first);
+        }else if(child.children.size() == 1){
+            Node<V> only = child.children.values().iterator().next();
+            only.label = child.label + only.label;
+            parent.children.put(first, only);
+        }
+    }
+
+    //prefix로 시작하는 키의 값. 경로가 짧은(키가 짧은) 노드부터 넓이 우선으로 읽고 limit개를 넘으면 멈춘다.
+    List<V> prefixSearch(String prefix, int limit){
+        return prefixSearch(prefix, limit, value -> true);
+    }
+
+    //filter를 통과한 값만 limit에 센다.
+    List<V> prefixSearch(String prefix, int limit, Predicate<? super V> filter){
+        Node<V> node = root;
+        int i = 0;
+
+        while(i < prefix.length()){
+            Node<V> child = node.children.get(prefix.charAt(i));
+            if(child == null) return List.of();
+
+            int remain = prefix.length() - i;
+            if(remain <= child.label.length()){
+                if(!child.label.regionMatches(0, prefix, i, remain)) return List.of();
+                node = child;
+                break;
+            }
+
+            if(!prefix.startsWith(child.label, i)) return List.of();
+            node = child;
+            i += child.label.length();
+        }
+
+        List<V> result = new ArrayList<>();
+        Deque<Node<V>> queue = new ArrayDeque<>();
+        queue.add(node);
+
+        while(!queue.isEmpty() && result.size() < limit){
+            Node<V> current = queue.poll();
+            for(V value : current.values){
+                if(filter.test(value)) result.add(value);
+            }
+            queue.addAll(current.children.values());
+        }
+        return result;
+    }
+
+    void clear(){
+        root.children.clear();
+        root.values.clear();
+    }
+
+    boolean isEmpty(){
+        return root.children.isEmpty() && root.values.isEmpty();
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset){
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while(i < max && label.charAt(i) == key.charAt(offset + i)) i++;
+        return i;
+    }
+
+    private static class Node<V> {
+        private String label;
+        private final Map<Character, Node<V>> children = new HashMap<>(4);
+        private final Set<V> values = new HashSet<>(2);
+
+        Node(String label){
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.cjg.book.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+
+/*
+삭제 표시된 서적 정리
+BookService.delete는 book.DELETED 표시만 하므로 실제 행은 요청 경로 밖에서 지운다.
+삭제 표시된 bookId를 batch-size 만큼 골라 book_category, book 순서로 IN 조건 DELETE 하므로
+서적 1건씩 읽고 지우는 것보다 문장 수가 적고, 한번에 잡는 잠금 범위가 batch 크기로 제한된다.
+한번 실행에 최대 max-batch-count 번만 지우고 나머지는 다음 실행에서 지운다.
+*/
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookPurgeJob {
+
+    private static final String DELETED_BOOK_ID_SQL = "select book_id from book where deleted = 1 order by book_id limit ?";
+
+    private static final String DELETE_BOOK_CATEGORY_SQL = "delete from book_category where book_id in (%s)";
+
+    private static final String DELETE_BOOK_SQL = "delete from book where deleted = 1 and book_id in (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${book.purge.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${book.purge.max-batch-count:100}")
+    private int maxBatchCount = 100;
+
+    //지운 서적 수
+    @Scheduled(fixedDelayString = "${book.purge.fixed-delay:60000}")
+    public long run(){
+        long start = System.currentTimeMillis();
+
+        long purgedCount = 0L;
+        for(int i=0; i<maxBatchCount; i++){
+            List<Long> bookIdList = jdbcTemplate.queryForList(DELETED_BOOK_ID_SQL, Long.class, batchSize);
+            if(bookIdList.isEmpty()) break;
+
+            purgedCount += purge(bookIdList);
+            if(bookIdList.size() < batchSize) break;
+        }
+
+        if(purgedCount > 0) log.info("deleted books purged : {} books, {} ms", purgedCount, System.currentTimeMillis() - start);
+        return purgedCount;
+    }
+
+    //외래키 때문에 book_category를 먼저 지운다. 삭제 표시된 서적은 다시 조회, 수정되지 않으므로 두 문장을 한 트랜잭션으로 묶지 않는다.
+    private int purge(List<Long> bookIdList){
+        String placeholder = String.join(",", Collections.nCopies(bookIdList.size(), "?"));
+        Object[] args = bookIdList.toArray();
+
+        jdbcTemplate.update(DELETE_BOOK_CATEGORY_SQL.formatted(placeholder), args);
+        return jdbcTemplate.update(DELETE_BOOK_SQL.formatted(placeholder), args);
+    }
+}
@@ -0,0 +1,131 @@
+package com.cjg.book.job;
+
+import com.cjg.book.domain.BookSortKey;
+import com.cjg.book.event.BookChangedEvent;
+import com.cjg.book.index.BookDocument;
+import com.cjg.book.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/*
+비정규화 컬럼 보정
+book.CATEGORY_MASK를 원본인 book_category로 다시 계산하여 어긋난 행만 고친다.(컬럼 추가 직후 백필 포함)
+bookId 구간 단위로 나눠 UPDATE 하므로 한번에 잡는 잠금 범위가 구간 크기로 제한된다.
+정렬 키(NAME_SORT_KEY, AUTHOR_SORT_KEY)는 Collator로 계산해야 하므로 비어 있는 행을 chunk 단위로 읽어 배치 UPDATE 한다.
+JDBC로 고치므로 정기 실행에서는 고친 서적마다 BookChangedEvent.modified를 발행하여 메모리 색인, 건수 캐시, 목록 ETag, 개별 조회 캐시에 반영한다.
+기동 시 실행은 색인을 다시 만들기 전이고 캐시도 비어 있으므로 발행하지 않는다.
+*/
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookRepairJob {
+
+    private static final String CATEGORY_MASK_SQL =
+            "(select coalesce(bit_or(1 << (bc.category_id - 1)), 0) from book_category bc where bc.book_id = b.book_id)";
+
+    private static final String MISMATCHED_BOOK_ID_SQL =
+            "select b.book_id from book b where b.book_id > ? and b.book_id <= ? and b.category_mask <> " + CATEGORY_MASK_SQL;
+
+    //조회 이후 다른 요청이 이미 고쳤으면 다시 고치지 않는다.
+    private static final String REPAIR_CATEGORY_MASK_SQL =
+            "update book b set b.category_mask = " + CATEGORY_MASK_SQL
+            + " where b.book_id in (%s) and b.category_mask <> " + CATEGORY_MASK_SQL;
+
+    private static final String SORT_KEY_MISSING_SQL =
+            "select book_id, name, author from book"
+            + " where book_id > ? and (name_sort_key is null or author_sort_key is null) order by book_id limit ?";
+
+    private static final String UPDATE_SORT_KEY_SQL = "update book set name_sort_key = ?, author_sort_key = ? where book_id = ?";
+
+    private static final int EVENT_CHUNK_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BookRepository bookRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${book.repair.chunk-size:10000}")
+    private int chunkSize = 10000;
+
+    //컬럼이 추가된 뒤 첫 기동에서 백필되도록 기동 시에도 한번 실행한다.
+    @Value("${book.repair.on-startup:true}")
+    private boolean onStartup = true;
+
+    //메모리 색인(BookIndexUpdater)이 보정된 categoryMask로 만들어지도록 먼저 실행한다.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void runOnStartup(){
+        if(!onStartup) return;
+        repairCategoryMask();
+        backfillSortKey();
+    }
+
+    @Scheduled(cron = "${book.repair.cron:0 0 4 * * *}")
+    public void run(){
+        Set<Long> changedIdSet = new TreeSet<>(repairCategoryMask());
+        changedIdSet.addAll(backfillSortKey());
+        publishChanged(new ArrayList<>(changedIdSet));
+    }
+
+    //보정한 bookId
+    public List<Long> repairCategoryMask(){
+        long start = System.currentTimeMillis();
+        Long maxBookId = jdbcTemplate.queryForObject("select coalesce(max(book_id), 0) from book", Long.class);
+
+        List<Long> repairedIdList = new ArrayList<>();
+        for(long fromBookId = 0L; fromBookId < maxBookId; fromBookId += chunkSize){
+            List<Long> bookIdList = jdbcTemplate.queryForList(MISMATCHED_BOOK_ID_SQL, Long.class, fromBookId, fromBookId + chunkSize);
+            if(bookIdList.isEmpty()) continue;
+
+            String placeholder = String.join(",", Collections.nCopies(bookIdList.size(), "?"));
+            jdbcTemplate.update(REPAIR_CATEGORY_MASK_SQL.formatted(placeholder), bookIdList.toArray());
+            repairedIdList.addAll(bookIdList);
+        }
+
+        log.info("book category mask repaired : {} books, {} ms", repairedIdList.size(), System.currentTimeMillis() - start);
+        return repairedIdList;
+    }
+
+    //정렬 키를 채운 bookId
+    public List<Long> backfillSortKey(){
+        long start = System.currentTimeMillis();
+
+        long lastBookId = 0L;
+        List<Long> filledIdList = new ArrayList<>();
+        while(true){
+            List<Object[]> argList = jdbcTemplate.query(SORT_KEY_MISSING_SQL
+                    , (rs, rowNum) -> new Object[]{BookSortKey.of(rs.getString("name")), BookSortKey.of(rs.getString("author")), rs.getLong("book_id")}
+                    , lastBookId, chunkSize);
+            if(argList.isEmpty()) break;
+
+            jdbcTemplate.batchUpdate(UPDATE_SORT_KEY_SQL, argList);
+            argList.forEach(args -> filledIdList.add((long) args[2]));
+            lastBookId = filledIdList.getLast();
+        }
+
+        log.info("book sort key backfilled : {} books, {} ms", filledIdList.size(), System.currentTimeMillis() - start);
+        return filledIdList;
+    }
+
+    //삭제 표시된 서적은 조회되지 않으므로 발행하지 않는다.
+    private void publishChanged(List<Long> bookIdList){
+        for(int i=0; i<bookIdList.size(); i+=EVENT_CHUNK_SIZE){
+            bookRepository.findAllById(bookIdList.subList(i, Math.min(i + EVENT_CHUNK_SIZE, bookIdList.size())))
+                    .forEach(book -> applicationEventPublisher.publishEvent(BookChangedEvent.modified(BookDocument.of(book))));
+        }
+    }
+}
@@ -3,8 +3,12 @@ package com.cjg.book.repository;
 
 import com.cjg.book.domain.BookCategory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +16,12 @@ public interface BookCategoryRepository extends JpaRepository<BookCategory, Long
     List<BookCategory> findAllByBookBookId(long bookId);
 
     Long deleteAllByBookBookId(long bookId);
+
+    @Query("select bc.category.categoryId from BookCategory bc where bc.book.bookId = :bookId")
+    List<Long> findCategoryIdListByBookId(@Param("bookId") long bookId);
+
+    //엔티티를 읽지 않고 한번의 DELETE 문으로 지운다.
+    @Modifying
+    @Query("delete from BookCategory bc where bc.book.bookId = :bookId and bc.category.categoryId in :categoryIdList")
+    int deleteAllByBookIdAndCategoryIdIn(@Param("bookId") long bookId, @Param("categoryIdList") Collection<Long> categoryIdList);
 }
@@ -0,0 +1,14 @@
+package com.cjg.book.repository;
+
+import java.time.LocalDateTime;
+
+//export 조회 결과. 서적 1건이 카테고리 수만큼 연속된 행으로 조회된다.(카테고리가 없으면 categoryName이 null인 1행)
+public record BookExportRow(
+        Long bookId,
+        String author,
+        String name,
+        String status,
+        LocalDateTime regDate,
+        LocalDateTime modDate,
+        String categoryName
+) {}
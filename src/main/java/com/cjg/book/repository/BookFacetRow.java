@@ -0,0 +1,9 @@
+package com.cjg.book.repository;
+
+//카테고리 비트 조합(categoryMask), 상태별 서적 수. 메모리 facet 색인을 사용할 수 없을 때의 건수 집계에 사용한다.
+public record BookFacetRow(
+        Long categoryMask,
+        String status,
+        Long count
+) {
+}
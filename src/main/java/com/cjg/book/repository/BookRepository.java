@@ -3,9 +3,27 @@ package com.cjg.book.repository;
 
 import com.cjg.book.domain.Book;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long>, CustomBookRepository {
 
+    //전체 서적을 bookId 순서로 나눠 읽을 때 사용한다.
+    List<Book> findTop1000ByBookIdGreaterThanOrderByBookIdAsc(long bookId);
+
+    //ETag 계산용. 서적을 조회하지 않고 마지막 변경 시각만 조회한다.
+    @Query("select coalesce(b.modDate, b.regDate) from Book b where b.bookId = :bookId")
+    Optional<LocalDateTime> findVersionById(long bookId);
+
+    //서적을 읽지 않고 UPDATE 1건으로 삭제 표시만 한다. 이미 삭제되었거나 없는 서적이면 0
+    @Modifying
+    @Query("update Book b set b.deleted = true, b.version = b.version + 1 where b.bookId = :bookId and b.deleted = false")
+    int markDeleted(@Param("bookId") long bookId);
 }
@@ -0,0 +1,24 @@
+package com.cjg.book.repository;
+
+import com.cjg.book.code.CategoryCode;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+//목록 조회 결과. 엔티티를 만들지 않고 필요한 컬럼과 카테고리 이름 목록(쉼표 구분)만 담는다.
+public record BookRow(
+        Long bookId,
+        String author,
+        String name,
+        String status,
+        LocalDateTime regDate,
+        LocalDateTime modDate,
+        String categoryNames
+) {
+
+    public List<CategoryCode> categoryCodeList(){
+        if(categoryNames == null || categoryNames.isEmpty()) return List.of();
+        return Arrays.stream(categoryNames.split(",")).map(CategoryCode::valueOf).toList();
+    }
+}
@@ -1,10 +1,30 @@
 package com.cjg.book.repository;
 
-import com.cjg.book.domain.Book;
+import com.cjg.book.dto.request.BookListCursor;
 import com.cjg.book.dto.request.BookListRequestDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+
 public interface CustomBookRepository {
-    Page<Book> list(Pageable pageable, BookListRequestDto dto);
+    default Page<BookRow> list(Pageable pageable, BookListRequestDto dto){
+        return list(pageable, dto, LongSupplier::getAsLong);
+    }
+
+    //totalCount는 count 쿼리를 받아 전체 건수를 반환한다. 마지막 페이지처럼 건수를 알 수 있으면 호출되지 않는다.
+    Page<BookRow> list(Pageable pageable, BookListRequestDto dto, ToLongFunction<LongSupplier> totalCount);
+
+    //bookIdList 순서대로 조회(메모리 색인으로 찾은 서적)
+    List<BookRow> listByIdList(List<Long> bookIdList);
+
+    List<BookRow> listByCursor(BookListRequestDto dto, BookListCursor cursor, int limit);
+
+    Stream<BookExportRow> exportStream(BookListRequestDto dto, int fetchSize);
+
+    //카테고리, 상태 조건을 제외한 나머지 조건으로 categoryMask, 상태별 서적 수를 센다.
+    List<BookFacetRow> facetRowList(BookListRequestDto dto);
 }
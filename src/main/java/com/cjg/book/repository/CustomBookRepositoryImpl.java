@@ -1,20 +1,43 @@
 package com.cjg.book.repository;
 
 import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.SortCode;
 import com.cjg.book.code.StatusCode;
-import com.cjg.book.domain.Book;
+import com.cjg.book.dto.request.BookListCursor;
 import com.cjg.book.dto.request.BookListRequestDto;
+import com.cjg.book.index.BookTextIndex;
+import com.cjg.book.sql.ParallelQueryExecutor;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.DateTimePath;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.JPAExpressions;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
-import lombok.AllArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.cjg.book.domain.QBook.book;
 import static com.cjg.book.domain.QBookCategory.bookCategory;
@@ -22,78 +45,280 @@ import static com.cjg.book.domain.QCategory.category;
 
 
 @Repository
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class CustomBookRepositoryImpl implements CustomBookRepository {
 
     private final JPAQueryFactory jpaQueryFactory;
+    private final BookTextIndex bookTextIndex;
+    private final MeterRegistry meterRegistry;
+    private final ParallelQueryExecutor parallelQueryExecutor;
+
+    //offset이 이 값 이상이면 bookId만 먼저 조회한 뒤 해당 서적만 읽는다.(deferred join)
+    @Value("${book.list.deferred-join-offset:1000}")
+    private long deferredJoinOffset = 1000;
+
+    /*
+    목록 조회
+    엔티티 대신 필요한 컬럼만 BookRow로 조회하고, 카테고리 이름은 같은 쿼리에서 listagg(MariaDB group_concat)로 묶는다.
+    카테고리 조건은 book.categoryMask로 걸기 때문에 조인으로 인한 중복이 없어 distinct, countDistinct가 필요 없다.
+    전체 건수는 totalCount에 count 쿼리를 넘겨 구하므로 캐시나 추정값으로 대신할 수 있다.
+    */
     @Override
-    public Page<Book> list(Pageable pageable, BookListRequestDto dto) {
-
-        if(dto.getCategoryCodeList() == null){
-
-            JPAQuery<Book> query =  jpaQueryFactory
-                    .selectFrom(book)
-                    .where(
-                            eqStatus(dto.getStatusCode())
-                            ,containsAuthor(dto.getAuthor())
-                            ,containsName(dto.getName())
-                    );
-
-            JPAQuery<Long> countQuery = jpaQueryFactory
-                    .select(book.count())
-                    .from(book)
-                    .where(
-                            eqStatus(dto.getStatusCode())
-                            ,containsAuthor(dto.getAuthor())
-                            ,containsName(dto.getName())
-                    );
-
-            List<Book> list = query.orderBy(book.regDate.desc())
-                    .offset(pageable.getOffset())
-                    .limit(pageable.getPageSize())
-                    .fetch();
-
-            return PageableExecutionUtils.getPage(list , pageable, countQuery::fetchOne);
-        }else{
-
-            JPAQuery<Book> query =  jpaQueryFactory
-                    .select(book).distinct()
-                    .from(bookCategory)
-                    .join(bookCategory.book, book)
-                    .join(bookCategory.category, category)
-                    .where(
-                        inCategoryCode(dto.getCategoryCodeList())
-                        ,eqStatus(dto.getStatusCode())
-                        ,containsAuthor(dto.getAuthor())
-                        ,containsName(dto.getName())
-                    );
-
-            JPAQuery<Long> countQuery = jpaQueryFactory
-                    .select(book.countDistinct())
-                    .from(bookCategory)
-                    .join(bookCategory.book, book)
-                    .join(bookCategory.category, category)
-                    .where(
-                        inCategoryCode(dto.getCategoryCodeList())
-                        ,eqStatus(dto.getStatusCode())
-                        ,containsAuthor(dto.getAuthor())
-                        ,containsName(dto.getName())
-                    );
-
-            List<Book> list = query.orderBy(book.regDate.desc())
-                    .offset(pageable.getOffset())
-                    .limit(pageable.getPageSize())
-                    .fetch();
-
-            return PageableExecutionUtils.getPage(list , pageable, countQuery::fetchOne);
+    public Page<BookRow> list(Pageable pageable, BookListRequestDto dto, ToLongFunction<LongSupplier> totalCount) {
+
+        Set<Long> candidateSet = bookTextIndex.search(dto.getAuthor(), dto.getName());
+
+        //서비스에서 트랜잭션을 열지 않으므로 동시 실행하지 않는 조회는 여기서 읽기 전용 트랜잭션(flush 없음)으로 묶는다.
+        if(Boolean.TRUE.equals(dto.getRelevance()) && candidateSet != null){
+            return listTimer("ranked").record(() -> parallelQueryExecutor.readOnly(() -> rankedList(pageable, dto, candidateSet)));
+        }
+
+        //목록 쿼리와 count 쿼리는 서로 의존하지 않으므로 각각의 커넥션에서 동시에 실행한다.
+        //이 경우 마지막 페이지처럼 건수를 알 수 있어도 count 쿼리를 미리 시작한다.
+        if(parallelQueryExecutor.isParallel()){
+            ParallelQueryExecutor.Both<List<BookRow>, Long> result = parallelQueryExecutor.both(
+                    () -> fetchPage(pageable, dto, candidateSet)
+                    , () -> totalCount.applyAsLong(() -> fetchCount(dto, candidateSet)));
+            return new PageImpl<>(result.first(), pageable, result.second());
+        }
+
+        //count 쿼리는 캐시/추정값을 사용하면 실행되지 않으므로 실제로 실행될 때만 기록한다.
+        return parallelQueryExecutor.readOnly(() -> {
+            List<BookRow> list = fetchPage(pageable, dto, candidateSet);
+            return PageableExecutionUtils.getPage(list , pageable, () -> totalCount.applyAsLong(() -> fetchCount(dto, candidateSet)));
+        });
+    }
+
+    private List<BookRow> fetchPage(Pageable pageable, BookListRequestDto dto, Set<Long> candidateSet){
+        if(pageable.getOffset() >= deferredJoinOffset){
+            return listTimer("deferred").record(() -> fetchPageDeferred(pageable, dto, candidateSet));
         }
+
+        return listTimer("page").record(() -> selectBookRow()
+                .where(listCondition(dto, candidateSet))
+                .orderBy(listOrder(dto.getSortOrDefault()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch());
+    }
+
+    /*
+    깊은 offset 페이지
+    offset만큼 건너뛰는 행을 (정렬 컬럼, BOOK_ID) 인덱스에서 bookId만으로 읽어 넘기고, 남은 페이지 크기만큼의 서적과 카테고리만 조회한다.
+    MariaDB는 LIMIT가 있는 IN 서브쿼리를 지원하지 않고 JPQL은 FROM 절 서브쿼리를 만들 수 없어 두번 조회한다.
+    */
+    private List<BookRow> fetchPageDeferred(Pageable pageable, BookListRequestDto dto, Set<Long> candidateSet){
+        List<Long> idList = jpaQueryFactory
+                .select(book.bookId)
+                .from(book)
+                .where(listCondition(dto, candidateSet))
+                .orderBy(listOrder(dto.getSortOrDefault()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        if(idList.isEmpty()) return List.of();
+
+        return selectBookRow()
+                .where(book.bookId.in(idList))
+                .orderBy(listOrder(dto.getSortOrDefault()))
+                .fetch();
     }
 
-    private BooleanExpression eqStatus(StatusCode statusCode){
+    private long fetchCount(BookListRequestDto dto, Set<Long> candidateSet){
+        return listTimer("count").record(() -> jpaQueryFactory
+                .select(book.count())
+                .from(book)
+                .where(listCondition(dto, candidateSet))
+                .fetchOne());
+    }
+
+    //목록 조회 단계별 실행 시간 : book.repository.list{branch=ranked|page|deferred|count|cursor}
+    private Timer listTimer(String branch){
+        return meterRegistry.timer("book.repository.list", "branch", branch);
+    }
+
+    //커서 페이징 : offset 대신 (regDate, bookId) 범위 조건으로 다음 페이지 위치를 바로 찾는다.
+    @Override
+    public List<BookRow> listByCursor(BookListRequestDto dto, BookListCursor cursor, int limit) {
+
+        Set<Long> candidateSet = bookTextIndex.search(dto.getAuthor(), dto.getName());
+
+        return listTimer("cursor").record(() -> selectBookRow()
+                .where(listCondition(dto, candidateSet))
+                .where(afterCursor(cursor))
+                .orderBy(book.regDate.desc(), book.bookId.desc())
+                .limit(limit)
+                .fetch());
+    }
+
+    /*
+    export용 전체 조회
+    조건은 목록 조회와 같고(listCondition), 카테고리는 한번의 left join으로 함께 조회하고, 결과는 fetchSize 단위로 드라이버에서 읽어오는 forward-only 커서로 넘긴다.
+    같은 서적의 카테고리 행이 연속되도록 bookId 다음에 bookCategoryId로 정렬한다.
+    반환된 Stream은 트랜잭션 안에서 사용하고 반드시 닫아야 한다.
+    */
+    @Override
+    public Stream<BookExportRow> exportStream(BookListRequestDto dto, int fetchSize) {
+
+        Set<Long> candidateSet = bookTextIndex.search(dto.getAuthor(), dto.getName());
+
+        return jpaQueryFactory
+                .select(Projections.constructor(BookExportRow.class
+                        , book.bookId
+                        , book.author
+                        , book.name
+                        , book.status
+                        , book.regDate
+                        , book.modDate
+                        , category.name))
+                .from(book)
+                .leftJoin(bookCategory).on(bookCategory.book.eq(book))
+                .leftJoin(bookCategory.category, category)
+                .where(listCondition(dto, candidateSet))
+                .orderBy(book.regDate.desc(), book.bookId.desc(), bookCategory.bookCategoryId.asc())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .stream();
+    }
+
+    /*
+    건수 집계용 categoryMask, 상태별 서적 수
+    카테고리별 건수는 카테고리 조건을, 상태별 건수는 상태 조건을 빼고 세야 하므로 두 조건은 걸지 않고 묶음 단위로 센다.
+    묶음은 categoryMask 조합 x 상태 수 이하이므로 조건별 집계는 메모리에서 한다.
+    */
+    @Override
+    public List<BookFacetRow> facetRowList(BookListRequestDto dto) {
+
+        Set<Long> candidateSet = bookTextIndex.search(dto.getAuthor(), dto.getName());
+
+        return jpaQueryFactory
+                .select(Projections.constructor(BookFacetRow.class, book.categoryMask, book.status, book.count()))
+                .from(book)
+                .where(
+                        matchText(dto.getAuthor(), dto.getName(), candidateSet)
+                        ,betweenDate(book.regDate, dto.getRegDateFrom(), dto.getRegDateTo())
+                        ,betweenDate(book.modDate, dto.getModDateFrom(), dto.getModDateTo())
+                )
+                .groupBy(book.categoryMask, book.status)
+                .fetch();
+    }
+
+    /*
+    관련도순 조회
+    색인 후보 중 나머지 조건을 만족하는 bookId만 먼저 조회하고, 관련도로 정렬한 뒤 해당 페이지의 서적만 조회한다.
+    후보 건수는 BookTextIndex에서 제한되므로 bookId 목록을 메모리에서 정렬해도 된다.
+    */
+    private Page<BookRow> rankedList(Pageable pageable, BookListRequestDto dto, Set<Long> candidateSet){
+
+        Comparator<Long> relevance = Comparator.comparingInt((Long bookId) -> bookTextIndex.score(bookId, dto.getAuthor(), dto.getName()))
+                .thenComparing(Comparator.naturalOrder());
+
+        List<Long> idList = jpaQueryFactory
+                .select(book.bookId)
+                .from(book)
+                .where(listCondition(dto, candidateSet))
+                .fetch()
+                .stream()
+                .sorted(relevance.reversed())
+                .toList();
+
+        int fromIndex = (int) Math.min(pageable.getOffset(), idList.size());
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), idList.size());
+        List<Long> pageIdList = idList.subList(fromIndex, toIndex);
+
+        return new PageImpl<>(listByIdList(pageIdList), pageable, idList.size());
+    }
+
+    //bookIdList 순서대로 조회한다. 그 사이 삭제된 서적은 빠진다.
+    @Override
+    public List<BookRow> listByIdList(List<Long> bookIdList){
+        if(bookIdList.isEmpty()) return List.of();
+
+        Map<Long, BookRow> rowMap = selectBookRow()
+                .where(book.bookId.in(bookIdList))
+                .fetch()
+                .stream()
+                .collect(Collectors.toMap(BookRow::bookId, Function.identity()));
+
+        return bookIdList.stream().map(rowMap::get).filter(Objects::nonNull).toList();
+    }
+
+    /*
+    서적 컬럼 + 카테고리 이름 목록(bookCategoryId 순서, 쉼표 구분)
+    카테고리 이름은 반환하는 행마다 상관 서브쿼리로 묶는다. 조인 후 GROUP BY 하면 LIMIT 전에 조건에 맞는 모든 행을
+    임시 테이블에 모아 정렬해야 하지만, 서브쿼리는 (정렬 컬럼, BOOK_ID) 인덱스 순서로 읽은 페이지 크기만큼만 실행된다.
+    */
+    JPAQuery<BookRow> selectBookRow(){
+        return jpaQueryFactory
+                .select(Projections.constructor(BookRow.class
+                        , book.bookId
+                        , book.author
+                        , book.name
+                        , book.status
+                        , book.regDate
+                        , book.modDate
+                        , JPAExpressions
+                                .select(Expressions.stringTemplate("listagg({0}, ',') within group (order by {1})", category.name, bookCategory.bookCategoryId))
+                                .from(bookCategory)
+                                .join(bookCategory.category, category)
+                                .where(bookCategory.book.bookId.eq(book.bookId))))
+                .from(book);
+    }
+
+    //정렬 컬럼 + bookId. 제목, 지은이는 저장시 계산한 정렬 키(VARBINARY)로 정렬한다.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    OrderSpecifier<?>[] listOrder(SortCode sortCode){
+        Order order = sortCode.getDirection().isAscending() ? Order.ASC : Order.DESC;
+        Expression column = switch(sortCode.getProperty()){
+            case "modDate" -> book.modDate;
+            case "name" -> book.nameSortKey;
+            case "author" -> book.authorSortKey;
+            default -> book.regDate;
+        };
+        return new OrderSpecifier<?>[]{new OrderSpecifier(order, column), new OrderSpecifier<>(order, book.bookId)};
+    }
+
+    //목록 조회 공통 조건 : 카테고리, 상태, 지은이/제목, 등록일/수정일 범위
+    Predicate[] listCondition(BookListRequestDto dto, Set<Long> candidateSet){
+        return new Predicate[]{
+                hasCategoryCode(dto.getCategoryCodeList())
+                ,eqStatus(dto.getStatusCode())
+                ,matchText(dto.getAuthor(), dto.getName(), candidateSet)
+                ,betweenDate(book.regDate, dto.getRegDateFrom(), dto.getRegDateTo())
+                ,betweenDate(book.modDate, dto.getModDateFrom(), dto.getModDateTo())
+        };
+    }
+
+    //from 0시 이상, to 다음날 0시 미만. 컬럼을 함수로 감싸지 않아야 인덱스 범위로 읽는다.
+    BooleanExpression betweenDate(DateTimePath<LocalDateTime> path, LocalDate from, LocalDate to){
+        BooleanExpression fromExpression = from == null ? null : path.goe(from.atStartOfDay());
+        BooleanExpression toExpression = to == null ? null : path.lt(to.plusDays(1).atStartOfDay());
+        if(fromExpression == null) return toExpression;
+        return fromExpression.and(toExpression);
+    }
+
+    //조건 생성 메서드는 JMH 벤치마크(src/jmh)에서 호출하므로 package-private
+    BooleanExpression eqStatus(StatusCode statusCode){
         if(statusCode==null) return null;
         return book.status.eq(statusCode.name());
     }
 
+    //지은이, 제목 조건 : 역색인 후보가 있으면 bookId IN 조건, 색인을 사용할 수 없으면 LIKE 검색
+    BooleanExpression matchText(String author, String name, Set<Long> candidateSet){
+        if(!StringUtils.hasText(author) && !StringUtils.hasText(name)) return null;
+
+        if(candidateSet == null){
+            BooleanExpression authorExpression = containsAuthor(author);
+            return authorExpression == null ? containsName(name) : authorExpression.and(containsName(name));
+        }
+
+        //일치하는 서적이 없으면 빈 결과
+        if(candidateSet.isEmpty()) return book.bookId.isNull();
+
+        return book.bookId.in(candidateSet);
+    }
+
     private BooleanExpression containsAuthor(String author){
         if(!StringUtils.hasText(author)) return null;
         return book.author.contains(author);
@@ -104,8 +329,19 @@ public class CustomBookRepositoryImpl implements CustomBookRepository {
         return book.name.contains(name);
     }
 
-    private BooleanExpression inCategoryCode(List<CategoryCode> list){
-        if(list.isEmpty()) return null;
-        return category.name.in(list.stream().map(Enum::name).toList());
+    BooleanExpression afterCursor(BookListCursor cursor){
+        if(cursor == null) return null;
+        return book.regDate.lt(cursor.getRegDate())
+                .or(book.regDate.eq(cursor.getRegDate()).and(book.bookId.lt(cursor.getBookId())));
+    }
+
+    /*
+    카테고리 조건 : 서적의 categoryMask에 요청한 카테고리 비트가 하나라도 있으면 일치. book_category 조인이 필요 없다.
+    bitand(CATEGORY_MASK, ?) <> 0은 인덱스로 찾을 수 없으므로 일치하는 categoryMask 값 목록(최대 127개)의 IN 조건으로 바꿔
+    (DELETED, CATEGORY_MASK, STATUS) 인덱스 범위로 읽고, 정렬 목록은 정렬 인덱스 끝의 CATEGORY_MASK로 거른다.
+    */
+    BooleanExpression hasCategoryCode(List<CategoryCode> list){
+        if(list == null || list.isEmpty()) return null;
+        return book.categoryMask.in(CategoryCode.matchingMaskList(list));
     }
 }
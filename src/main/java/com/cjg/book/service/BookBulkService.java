@@ -0,0 +1,155 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.ResultCode;
+import com.cjg.book.dto.request.BookSaveRequestDto;
+import com.cjg.book.dto.response.BookBulkFailDto;
+import com.cjg.book.dto.response.BookBulkResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/*
+NDJSON 일괄 저장
+요청 본문을 한 줄씩 읽어 BookSaveRequestDto와 같은 검증을 하고, chunk 단위 트랜잭션으로 저장한다.
+chunk마다 flush 후 영속성 컨텍스트를 비우므로 전체 건수와 상관없이 메모리 사용량이 일정하다.
+*/
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookBulkService {
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @Value("${book.bulk.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${book.bulk.max-fail-report:1000}")
+    private int maxFailReport = 1000;
+
+    public BookBulkResponseDto save(InputStream inputStream) throws IOException {
+        BulkResult result = new BulkResult(maxFailReport);
+        List<BulkLine> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+
+        while((line = reader.readLine()) != null){
+            lineNumber++;
+            if(line.isBlank()) continue;
+
+            try{
+                chunk.add(new BulkLine(lineNumber, parse(line)));
+            }catch(IllegalArgumentException e){
+                result.fail(lineNumber, e.getMessage());
+            }
+
+            if(chunk.size() >= chunkSize){
+                saveChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+
+        if(!chunk.isEmpty()) saveChunk(chunk, result);
+
+        return result.toDto();
+    }
+
+    //한 줄을 BookSaveRequestDto로 변환하고 @Valid, 카테고리 중복 체크와 같은 검증을 한다. 실패하면 사유를 담은 IllegalArgumentException
+    public BookSaveRequestDto parse(String line){
+        BookSaveRequestDto dto;
+        try{
+            dto = objectMapper.readValue(line, BookSaveRequestDto.class);
+        }catch(JsonProcessingException e){
+            throw new IllegalArgumentException(ResultCode.BOOK_INVALID_PARAM.getMessage());
+        }
+
+        if(dto == null) throw new IllegalArgumentException(ResultCode.BOOK_INVALID_PARAM.getMessage());
+
+        Set<ConstraintViolation<BookSaveRequestDto>> violationSet = validator.validate(dto);
+        if(!violationSet.isEmpty()){
+            throw new IllegalArgumentException(violationSet.iterator().next().getMessage());
+        }
+
+        if(new HashSet<>(dto.getCategoryCodeList()).size() != dto.getCategoryCodeList().size()){
+            throw new IllegalArgumentException(ResultCode.BOOK_INVALID_CATEGORY.getMessage());
+        }
+
+        return dto;
+    }
+
+    private void saveChunk(List<BulkLine> chunk, BulkResult result){
+        try{
+            saveInTransaction(chunk.stream().map(BulkLine::dto).toList());
+            result.success(chunk.size());
+        }catch(RuntimeException e){
+            //chunk 전체가 롤백되었으므로 한 건씩 다시 저장하여 실패한 줄만 골라낸다.
+            log.warn("bulk chunk failed, retry line by line : {}", e.getMessage());
+            for(BulkLine bulkLine : chunk){
+                try{
+                    saveInTransaction(List.of(bulkLine.dto()));
+                    result.success(1);
+                }catch(RuntimeException lineException){
+                    result.fail(bulkLine.lineNumber(), ResultCode.BOOK_SAVE_FAIL.getMessage());
+                }
+            }
+        }
+    }
+
+    private void saveInTransaction(List<BookSaveRequestDto> dtoList){
+        transactionTemplate.executeWithoutResult(status -> {
+            bookService.saveAll(dtoList);
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private record BulkLine(long lineNumber, BookSaveRequestDto dto) {}
+
+    private static class BulkResult {
+        private final int maxFailReport;
+        private final List<BookBulkFailDto> failList = new ArrayList<>();
+        private long successCount;
+        private long failCount;
+
+        BulkResult(int maxFailReport){
+            this.maxFailReport = maxFailReport;
+        }
+
+        void success(int count){
+            successCount += count;
+        }
+
+        void fail(long lineNumber, String message){
+            failCount++;
+            if(failList.size() < maxFailReport) failList.add(new BookBulkFailDto(lineNumber, message));
+        }
+
+        BookBulkResponseDto toDto(){
+            return BookBulkResponseDto.builder()
+                    .totalCount(successCount + failCount)
+                    .successCount(successCount)
+                    .failCount(failCount)
+                    .failList(failList)
+                    .build();
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.cjg.book.repository.BookCategoryRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -17,13 +18,21 @@ public class BookCategoryService {
         return bookCategoryRepository.save(bookCategory);
     }
 
+    public List<BookCategory> saveAll(List<BookCategory> bookCategoryList){
+        return bookCategoryRepository.saveAll(bookCategoryList);
+    }
+
     public List<BookCategory> findAllByBookBookId(Long bookId){ return bookCategoryRepository.findAllByBookBookId(bookId); }
 
     public Long deleteAllByBookBookId(Long bookId){
         return bookCategoryRepository.deleteAllByBookBookId(bookId);
     }
 
-    public void flush(){
-        bookCategoryRepository.flush();
+    public List<Long> findCategoryIdList(Long bookId){
+        return bookCategoryRepository.findCategoryIdListByBookId(bookId);
+    }
+
+    public int deleteAllByBookIdAndCategoryIdIn(Long bookId, Collection<Long> categoryIdList){
+        return bookCategoryRepository.deleteAllByBookIdAndCategoryIdIn(bookId, categoryIdList);
     }
 }
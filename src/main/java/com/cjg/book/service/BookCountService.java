@@ -0,0 +1,96 @@
+package com.cjg.book.service;
+
+import com.cjg.book.cache.AsyncCaches;
+import com.cjg.book.cache.CatalogVersion;
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.CountMode;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.dto.request.BookListRequestDto;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+
+/*
+목록 전체 건수
+exact : count 쿼리를 그대로 실행
+cached : 정규화한 조건 + CatalogVersion을 키로 count 결과를 캐시한다. 서적이 변경되면 버전이 바뀌므로 이전 값은 다시 사용되지 않는다.
+estimated : 메모리 facet 색인으로 센다. 테이블 통계(information_schema.tables.table_rows)는 BookPurgeJob이 지우기 전의
+삭제 표시된 행까지 세므로 사용하지 않는다.
+추정할 수 없으면 exact로 계산하고, 실제로 사용한 방식을 함께 반환한다.
+*/
+@Service
+@RequiredArgsConstructor
+public class BookCountService {
+
+    private final CatalogVersion catalogVersion;
+    private final BookFacetService bookFacetService;
+
+    @Value("${book.count.cache.maximum-size:10000}")
+    private long maximumSize = 10000;
+
+    @Value("${book.count.cache.expire-after-write:10m}")
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+
+    //count 쿼리는 가상 스레드(ParallelQueryExecutor)에서 실행되므로 잠금 안에서 적재하지 않는다.(AsyncCaches)
+    private AsyncCache<CountKey, Long> countCache;
+
+    @PostConstruct
+    public void init(){
+        countCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public void bindMetrics(MeterRegistry meterRegistry){
+        CaffeineCacheMetrics.monitor(meterRegistry, countCache.synchronous(), "book.count");
+    }
+
+    public BookCount count(BookListRequestDto dto, LongSupplier exactCount){
+        CountMode countMode = dto.getCountMode() == null ? CountMode.exact : dto.getCountMode();
+
+        if(countMode == CountMode.cached){
+            return new BookCount(AsyncCaches.get(countCache, CountKey.of(catalogVersion.get(), dto), key -> exactCount.getAsLong()), CountMode.cached);
+        }
+
+        if(countMode == CountMode.estimated){
+            OptionalLong estimate = estimate(dto);
+            if(estimate.isPresent()) return new BookCount(estimate.getAsLong(), CountMode.estimated);
+        }
+
+        return new BookCount(exactCount.getAsLong(), CountMode.exact);
+    }
+
+    private OptionalLong estimate(BookListRequestDto dto){
+        //facet 색인에는 등록일, 수정일이 없다.
+        if(dto.hasDateRange()) return OptionalLong.empty();
+
+        return bookFacetService.count(dto);
+    }
+
+    public record BookCount(long totalCount, CountMode countMode) {}
+
+    //카테고리 순서, 중복과 상관없이 같은 조건이면 같은 키
+    record CountKey(long version, List<CategoryCode> categoryCodeList, StatusCode statusCode, String author, String name
+            , LocalDate regDateFrom, LocalDate regDateTo, LocalDate modDateFrom, LocalDate modDateTo) {
+
+        static CountKey of(long version, BookListRequestDto dto){
+            List<CategoryCode> categoryCodeList = dto.getCategoryCodeList() == null ? List.of()
+                    : dto.getCategoryCodeList().stream().distinct().sorted().toList();
+            return new CountKey(version, categoryCodeList, dto.getStatusCode(), dto.getAuthor(), dto.getName()
+                    , dto.getRegDateFrom(), dto.getRegDateTo(), dto.getModDateFrom(), dto.getModDateTo());
+        }
+    }
+}
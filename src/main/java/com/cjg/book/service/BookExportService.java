@@ -0,0 +1,119 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.ExportFormat;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.dto.request.BookListRequestDto;
+import com.cjg.book.dto.response.BookResponseDto;
+import com.cjg.book.repository.BookExportRow;
+import com.cjg.book.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+서적 export
+조회 결과를 커서로 읽으면서 바로 응답에 쓰므로, 전체 건수와 상관없이 서적 1건(카테고리 포함)만 메모리에 유지한다.
+*/
+@Service
+@RequiredArgsConstructor
+public class BookExportService {
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String CSV_HEADER = "bookId,author,name,statusCode,categoryCodeList,regDate,modDate";
+
+    private final BookRepository bookRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${book.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    //응답 스트림은 요청 스레드가 아닌 곳에서 쓰이므로 조회용 트랜잭션을 직접 연다.
+    public void export(BookListRequestDto dto, ExportFormat format, OutputStream outputStream) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try(Stream<BookExportRow> stream = bookRepository.exportStream(dto, fetchSize)){
+                Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                write(stream.iterator(), format, writer);
+                writer.flush();
+            }catch(IOException e){
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    //bookId가 같은 연속된 행을 서적 1건으로 묶어서 쓴다.
+    void write(Iterator<BookExportRow> iterator, ExportFormat format, Writer writer) throws IOException {
+        if(format == ExportFormat.csv) writer.write(CSV_HEADER + "\n");
+
+        BookExportRow current = null;
+        List<CategoryCode> categoryCodeList = new ArrayList<>();
+
+        while(iterator.hasNext()){
+            BookExportRow row = iterator.next();
+
+            if(current != null && !current.bookId().equals(row.bookId())){
+                writeBook(current, categoryCodeList, format, writer);
+                categoryCodeList = new ArrayList<>();
+            }
+
+            current = row;
+            if(row.categoryName() != null) categoryCodeList.add(CategoryCode.valueOf(row.categoryName()));
+        }
+
+        if(current != null) writeBook(current, categoryCodeList, format, writer);
+    }
+
+    private void writeBook(BookExportRow row, List<CategoryCode> categoryCodeList, ExportFormat format, Writer writer) throws IOException {
+        if(format == ExportFormat.csv){
+            writer.write(String.join(","
+                    , String.valueOf(row.bookId())
+                    , escapeCsv(row.author())
+                    , escapeCsv(row.name())
+                    , row.status()
+                    , categoryCodeList.stream().map(Enum::name).collect(Collectors.joining("|"))
+                    , format(row.regDate())
+                    , format(row.modDate())));
+        }else{
+            BookResponseDto bookResponseDto = BookResponseDto.builder()
+                    .bookId(row.bookId())
+                    .categoryCodeList(categoryCodeList)
+                    .author(row.author())
+                    .name(row.name())
+                    .statusCode(StatusCode.valueOf(row.status()))
+                    .regDate(format(row.regDate()))
+                    .modDate(format(row.modDate()))
+                    .build();
+            writer.write(objectMapper.writeValueAsString(bookResponseDto));
+        }
+        writer.write("\n");
+    }
+
+    private String format(LocalDateTime dateTime){
+        return dateTime != null ? dateTime.format(DATE_TIME_FORMATTER) : "";
+    }
+
+    static String escapeCsv(String value){
+        if(value == null) return "";
+        if(value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")){
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
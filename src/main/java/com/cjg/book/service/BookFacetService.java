@@ -0,0 +1,91 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.ResultCode;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.dto.request.BookListRequestDto;
+import com.cjg.book.dto.response.BookFacetResponseDto;
+import com.cjg.book.exception.CustomException;
+import com.cjg.book.index.BookFacetIndex;
+import com.cjg.book.index.BookTextIndex;
+import com.cjg.book.repository.BookFacetRow;
+import com.cjg.book.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/*
+카테고리별, 상태별 서적 수 집계
+DB를 조회하지 않고 메모리 비트맵 색인(BookFacetIndex)과 지은이/제목 역색인(BookTextIndex)만 사용한다.
+비트맵 색인에는 등록일, 수정일이 없으므로 기간 조건이 있으면 DB에서 categoryMask, 상태별로 묶어 센다.
+*/
+@Service
+@RequiredArgsConstructor
+public class BookFacetService {
+
+    private final BookFacetIndex bookFacetIndex;
+    private final BookTextIndex bookTextIndex;
+    private final BookRepository bookRepository;
+
+    public BookFacetResponseDto facets(BookListRequestDto dto){
+        BookFacetIndex.FacetCount facetCount = dto.hasDateRange() ? facetCountFromDb(dto) : facetCount(dto);
+        if(facetCount == null) throw new CustomException(ResultCode.BOOK_INDEX_NOT_READY);
+
+        return BookFacetResponseDto.builder()
+                .totalCount(facetCount.totalCount())
+                .categoryCountMap(facetCount.categoryCountMap())
+                .statusCountMap(facetCount.statusCountMap())
+                .build();
+    }
+
+    //조건을 만족하는 서적 수. 색인을 사용할 수 없으면 empty
+    public OptionalLong count(BookListRequestDto dto){
+        BookFacetIndex.FacetCount facetCount = facetCount(dto);
+        return facetCount == null ? OptionalLong.empty() : OptionalLong.of(facetCount.totalCount());
+    }
+
+    //색인을 사용할 수 없으면 null
+    private BookFacetIndex.FacetCount facetCount(BookListRequestDto dto){
+        if(!bookFacetIndex.isReady()) return null;
+
+        Set<Long> textCandidateSet = null;
+        if(StringUtils.hasText(dto.getAuthor()) || StringUtils.hasText(dto.getName())){
+            textCandidateSet = bookTextIndex.searchAll(dto.getAuthor(), dto.getName());
+            if(textCandidateSet == null) return null;
+        }
+
+        return bookFacetIndex.count(textCandidateSet, dto.getCategoryCodeList(), dto.getStatusCode());
+    }
+
+    //BookFacetIndex.count와 같은 규칙 : 카테고리별 건수는 상태 조건만, 상태별 건수는 카테고리 조건만 적용한다.
+    private BookFacetIndex.FacetCount facetCountFromDb(BookListRequestDto dto){
+        long categoryFilter = dto.getCategoryCodeList() == null ? 0L : CategoryCode.toMask(dto.getCategoryCodeList());
+        StatusCode statusFilter = dto.getStatusCode();
+
+        long totalCount = 0L;
+        Map<CategoryCode, Long> categoryCountMap = new EnumMap<>(CategoryCode.class);
+        for(CategoryCode categoryCode : CategoryCode.values()) categoryCountMap.put(categoryCode, 0L);
+        Map<StatusCode, Long> statusCountMap = new EnumMap<>(StatusCode.class);
+        for(StatusCode statusCode : StatusCode.values()) statusCountMap.put(statusCode, 0L);
+
+        for(BookFacetRow row : bookRepository.facetRowList(dto)){
+            boolean categoryMatched = categoryFilter == 0L || (row.categoryMask() & categoryFilter) != 0;
+            boolean statusMatched = statusFilter == null || statusFilter.name().equals(row.status());
+
+            if(categoryMatched && statusMatched) totalCount += row.count();
+            if(statusMatched){
+                for(CategoryCode categoryCode : CategoryCode.values()){
+                    if((row.categoryMask() & categoryCode.getBit()) != 0) categoryCountMap.merge(categoryCode, row.count(), Long::sum);
+                }
+            }
+            if(categoryMatched) statusCountMap.merge(StatusCode.valueOf(row.status()), row.count(), Long::sum);
+        }
+
+        return new BookFacetIndex.FacetCount(totalCount, categoryCountMap, statusCountMap);
+    }
+}
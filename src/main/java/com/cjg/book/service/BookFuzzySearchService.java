@@ -0,0 +1,63 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.CountMode;
+import com.cjg.book.code.ResultCode;
+import com.cjg.book.dto.request.BookFuzzySearchRequestDto;
+import com.cjg.book.dto.response.BookListResponseDto;
+import com.cjg.book.exception.CustomException;
+import com.cjg.book.index.BookFuzzyIndex;
+import com.cjg.book.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/*
+제목, 지은이 오타 허용 검색
+메모리 색인(BookFuzzyIndex)에서 거리순으로 정렬한 bookId를 구하고, DB에서는 해당 페이지의 서적만 bookId로 조회한다.
+*/
+@Service
+@RequiredArgsConstructor
+public class BookFuzzySearchService {
+
+    private final BookFuzzyIndex bookFuzzyIndex;
+    private final BookRepository bookRepository;
+    private final BookService bookService;
+
+    @Transactional(readOnly = true)
+    public BookListResponseDto search(BookFuzzySearchRequestDto dto){
+        dto.checkParam(bookFuzzyIndex.getMaxDistance());
+        if(!bookFuzzyIndex.isReady()) throw new CustomException(ResultCode.BOOK_INDEX_NOT_READY);
+
+        List<BookFuzzyIndex.FuzzyMatch> matchList = bookFuzzyIndex.search(dto.getQuery(), dto.getDistance());
+
+        int fromIndex = (int) Math.min((long) (dto.getPageNumber() - 1) * dto.getPageSize(), matchList.size());
+        int toIndex = Math.min(fromIndex + dto.getPageSize(), matchList.size());
+        List<Long> pageIdList = matchList.subList(fromIndex, toIndex).stream().map(BookFuzzyIndex.FuzzyMatch::bookId).toList();
+
+        int totalPage = matchList.isEmpty() ? 1 : (matchList.size() + dto.getPageSize() - 1) / dto.getPageSize();
+
+        return BookListResponseDto.builder()
+                .bookList(bookService.toBookResponseDtoList(bookRepository.listByIdList(pageIdList)))
+                .pageNumber(dto.getPageNumber())
+                .totalPage(totalPage)
+                .totalCount((long) matchList.size())
+                .countMode(CountMode.exact)
+                .prevPage(getPageUrl(dto, dto.getPageNumber() - 1, totalPage))
+                .nextPage(getPageUrl(dto, dto.getPageNumber() + 1, totalPage))
+                .build();
+    }
+
+    public String getPageUrl(BookFuzzySearchRequestDto dto, int pageNumber, int totalPage){
+        if(pageNumber < 1 || pageNumber > totalPage) return "";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("/v1/book/search?");
+        sb.append("query=").append(dto.getQuery()).append("&");
+        if(dto.getDistance() != null) sb.append("distance=").append(dto.getDistance()).append("&");
+        sb.append("pageNumber=").append(pageNumber).append("&");
+        sb.append("pageSize=").append(dto.getPageSize());
+        return sb.toString();
+    }
+}
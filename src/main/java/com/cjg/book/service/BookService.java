@@ -1,96 +1,189 @@
 package com.cjg.book.service;
 
 
+import com.cjg.book.cache.BookCache;
+import com.cjg.book.cache.CatalogVersion;
 import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.CountMode;
 import com.cjg.book.code.ResultCode;
+import com.cjg.book.code.SortCode;
 import com.cjg.book.code.StatusCode;
 import com.cjg.book.domain.Book;
 import com.cjg.book.domain.BookCategory;
 import com.cjg.book.dto.request.BookDeleteRequestDto;
+import com.cjg.book.dto.request.BookListCursor;
 import com.cjg.book.dto.request.BookListRequestDto;
 import com.cjg.book.dto.request.BookModifyRequestDto;
 import com.cjg.book.dto.request.BookSaveRequestDto;
 import com.cjg.book.dto.response.BookListResponseDto;
 import com.cjg.book.dto.response.BookResponseDto;
+import com.cjg.book.event.BookChangedEvent;
 import com.cjg.book.exception.CustomException;
+import com.cjg.book.index.BookDocument;
 import com.cjg.book.repository.BookRepository;
-import jakarta.transaction.Transactional;
+import com.cjg.book.repository.BookRow;
+import com.cjg.book.sql.ParallelQueryExecutor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
+//메서드별 실행 시간 : book.service{class, method}
+@Timed(value = "book.service", histogram = true)
 @Service
 @RequiredArgsConstructor
 public class BookService {
 
     private final BookCategoryService bookCategoryService;
-    private final CategoryService categoryService;
+    private final CategoryRegistry categoryRegistry;
     private final BookRepository bookRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final BookCache bookCache;
+    private final CatalogVersion catalogVersion;
+    private final BookCountService bookCountService;
+    private final ParallelQueryExecutor parallelQueryExecutor;
 
     @Transactional
     public BookResponseDto save(BookSaveRequestDto bookDto){
         Book book = bookRepository.save(toBook(bookDto));
 
-        for(CategoryCode code : bookDto.getCategoryCodeList()){
-            bookCategoryService.save(BookCategory.builder().book(book).category(categoryService.findById(code.getCode())).build());
-        }
+        //시퀀스 ID + JDBC 배치로 카테고리 수와 상관없이 한번에 INSERT 된다.
+        bookCategoryService.saveAll(toBookCategoryList(book, bookDto.getCategoryCodeList()));
+
+        applicationEventPublisher.publishEvent(BookChangedEvent.saved(BookDocument.of(book)));
 
         BookResponseDto bookResponseDto = toBookResponseDto(book);
         bookResponseDto.setCategoryCodeList(bookDto.getCategoryCodeList());
         return bookResponseDto;
     }
 
+    //일괄 저장용. 호출하는 쪽의 트랜잭션 안에서 서적, 카테고리를 각각 배치 INSERT 한다.
+    @Transactional
+    public List<Book> saveAll(List<BookSaveRequestDto> bookDtoList){
+        List<Book> bookList = bookRepository.saveAll(bookDtoList.stream().map(this::toBook).toList());
+
+        List<BookCategory> bookCategoryList = new ArrayList<>();
+        for(int i=0; i<bookList.size(); i++){
+            bookCategoryList.addAll(toBookCategoryList(bookList.get(i), bookDtoList.get(i).getCategoryCodeList()));
+        }
+        bookCategoryService.saveAll(bookCategoryList);
+
+        bookList.forEach(e -> applicationEventPublisher.publishEvent(BookChangedEvent.saved(BookDocument.of(e))));
+        return bookList;
+    }
+
     public BookResponseDto findById(long bookId){
-        BookResponseDto bookDto = toBookResponseDto(bookRepository.findById(bookId).orElseThrow(() -> new CustomException(ResultCode.BOOK_SEARCH_NOT_FOUND)));
+        return bookCache.get(bookId, this::loadById);
+    }
 
-        List<CategoryCode> categoryList = bookCategoryService.findAllByBookBookId(bookId)
-                .stream()
-                .map(e -> CategoryCode.valueOf(e.getCategory().getName()))
-                .toList();
+    //서적 1건의 ETag : 서적을 조회하지 않고 마지막 변경 시각으로 만든다. 서적이 없으면 404
+    public String getETag(long bookId){
+        return bookCache.getETag(bookId, id -> {
+            LocalDateTime version = bookRepository.findVersionById(id).orElseThrow(() -> new CustomException(ResultCode.BOOK_SEARCH_NOT_FOUND));
+            return "\"" + id + "-" + version + "\"";
+        });
+    }
+
+    //목록 ETag : 목록 변경 표시 + 조회 조건. 서적이 변경되지 않았으면 같은 조건의 목록은 같은 값이다.
+    public String getListETag(BookListRequestDto bookListRequestDto){
+        String source = catalogVersion.get() + "|" + bookListRequestDto;
+        return "\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 
-        bookDto.setCategoryCodeList(categoryList);
-        return bookDto;
+    //서적과 카테고리를 한 읽기 전용 트랜잭션(커넥션 1개)에서 순서대로 조회한다. 기본키 조회 둘은 커넥션을 하나 더 쓸 만큼 느리지 않다.
+    private BookResponseDto loadById(long bookId){
+        return parallelQueryExecutor.readOnly(() -> {
+            Book book = bookRepository.findById(bookId).orElseThrow(() -> new CustomException(ResultCode.BOOK_SEARCH_NOT_FOUND));
+
+            BookResponseDto bookDto = toBookResponseDto(book);
+            bookDto.setCategoryCodeList(bookCategoryService.findCategoryIdList(bookId).stream().map(CategoryCode::ofCode).toList());
+            return bookDto;
+        });
     }
 
+    //목록, count 쿼리를 각각 읽기 전용 트랜잭션으로 동시에 실행하므로(ParallelQueryExecutor) 여기서는 트랜잭션을 열지 않는다.
     public BookListResponseDto list(BookListRequestDto bookListRequestDto){
-        Pageable pageable = PageRequest.of(bookListRequestDto.getPageNumber()-1, bookListRequestDto.getPageSize(), Sort.Direction.DESC, "regDate");
-        Page<Book> page =  bookRepository.list(pageable, bookListRequestDto);
+        //같은 클래스 안의 호출은 @Transactional이 적용되지 않으므로 직접 읽기 전용 트랜잭션으로 묶는다.
+        if(bookListRequestDto.isCursorMode()) return parallelQueryExecutor.readOnly(() -> listByCursor(bookListRequestDto));
 
-        List<BookResponseDto> list = new ArrayList<>();
-        for(Book book : page.getContent()) {
-            BookResponseDto temp = BookResponseDto.builder()
-                    .categoryCodeList(bookCategoryService.findAllByBookBookId(book.getBookId()).stream().map(e->CategoryCode.valueOf(e.getCategory().getName())).toList())
-                    .bookId(book.getBookId())
-                    .author(book.getAuthor())
-                    .name(book.getName())
-                    .statusCode(StatusCode.valueOf(book.getStatus()))
-                    .regDate(book.getRegDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
-                    .modDate(book.getModDate() != null ? book.getModDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "")
-                    .build();
+        SortCode sortCode = bookListRequestDto.getSortOrDefault();
+        Pageable pageable = PageRequest.of(bookListRequestDto.getPageNumber()-1, bookListRequestDto.getPageSize(), sortCode.getDirection(), sortCode.getProperty());
 
-            list.add(temp);
-        }
+        //count 쿼리 대신 캐시/추정값을 사용했는지 응답에 표시한다. count가 필요 없는 페이지면 exact
+        AtomicReference<CountMode> countMode = new AtomicReference<>(CountMode.exact);
+        Page<BookRow> page =  bookRepository.list(pageable, bookListRequestDto, exactCount -> {
+            BookCountService.BookCount bookCount = bookCountService.count(bookListRequestDto, exactCount);
+            countMode.set(bookCount.countMode());
+            return bookCount.totalCount();
+        });
 
         int totalPage = page.getTotalPages() == 0 ? 1 : page.getTotalPages();
 
         return BookListResponseDto.builder()
-                        .bookList(list)
+                        .bookList(toBookResponseDtoList(page.getContent()))
                         .pageNumber(page.getPageable().getPageNumber()+1)
                         .totalPage(totalPage)
                         .totalCount(page.getTotalElements())
+                        .countMode(countMode.get())
                         .prevPage(getPageUrl(bookListRequestDto, "prev", totalPage))
                         .nextPage(getPageUrl(bookListRequestDto, "next", totalPage))
                         .build();
     }
 
+    //커서 페이징 : 전체 건수를 세지 않고, 다음 페이지 커서만 내려준다.
+    @Transactional(readOnly = true)
+    public BookListResponseDto listByCursor(BookListRequestDto bookListRequestDto){
+        BookListCursor cursor = bookListRequestDto.getCursor().isEmpty() ? null : BookListCursor.decode(bookListRequestDto.getCursor());
+
+        //다음 페이지 존재 여부를 알기 위해 1건 더 조회한다.
+        List<BookRow> bookList = bookRepository.listByCursor(bookListRequestDto, cursor, bookListRequestDto.getPageSize()+1);
+        boolean hasNext = bookList.size() > bookListRequestDto.getPageSize();
+        if(hasNext) bookList = bookList.subList(0, bookListRequestDto.getPageSize());
+
+        String nextCursor = "";
+        if(hasNext){
+            BookRow last = bookList.getLast();
+            nextCursor = new BookListCursor(last.regDate(), last.bookId()).encode();
+        }
+
+        return BookListResponseDto.builder()
+                .bookList(toBookResponseDtoList(bookList))
+                .prevPage("")
+                .nextPage(hasNext ? getCursorPageUrl(bookListRequestDto, nextCursor) : "")
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    //JMH 벤치마크(src/jmh)에서 호출하므로 package-private
+    List<BookResponseDto> toBookResponseDtoList(List<BookRow> bookList){
+        List<BookResponseDto> list = new ArrayList<>();
+        for(BookRow book : bookList) {
+            BookResponseDto temp = BookResponseDto.builder()
+                    .categoryCodeList(book.categoryCodeList())
+                    .bookId(book.bookId())
+                    .author(book.author())
+                    .name(book.name())
+                    .statusCode(StatusCode.valueOf(book.status()))
+                    .regDate(book.regDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
+                    .modDate(book.modDate() != null ? book.modDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "")
+                    .build();
+
+            list.add(temp);
+        }
+        return list;
+    }
+
     public String getPageUrl(BookListRequestDto dto, String direction, int totalPages){
 
         if( (direction.equals("prev") && dto.getPageNumber() == 1) || (direction.equals("next") && dto.getPageNumber() == totalPages) ){
@@ -100,6 +193,40 @@ public class BookService {
         StringBuilder sb = new StringBuilder();
         sb.append("/v1/book/list?");
 
+        appendSearchParam(sb, dto);
+
+        if(direction.equals("prev")){
+            sb.append("pageNumber=").append(dto.getPageNumber()-1).append("&");
+            sb.append("pageSize=").append(dto.getPageSize()).append("&");
+        }else{
+            sb.append("pageNumber=").append(dto.getPageNumber()+1).append("&");
+            sb.append("pageSize=").append(dto.getPageSize()).append("&");
+        }
+
+        if(dto.getCountMode() != null && dto.getCountMode() != CountMode.exact){
+            sb.append("countMode=").append(dto.getCountMode().name()).append("&");
+        }
+
+        if(sb.lastIndexOf("&") == sb.length()-1){
+            sb.delete(sb.length()-1, sb.length());
+        }
+
+        return sb.toString();
+    }
+
+    public String getCursorPageUrl(BookListRequestDto dto, String cursor){
+        StringBuilder sb = new StringBuilder();
+        sb.append("/v1/book/list?");
+
+        appendSearchParam(sb, dto);
+
+        sb.append("cursor=").append(cursor).append("&");
+        sb.append("pageSize=").append(dto.getPageSize());
+
+        return sb.toString();
+    }
+
+    private void appendSearchParam(StringBuilder sb, BookListRequestDto dto){
         if(dto.getCategoryCodeList() != null){
             sb.append("categoryCodeList=");
             sb.append(dto.getCategoryCodeList().toString()
@@ -122,19 +249,25 @@ public class BookService {
             sb.append("name=").append(dto.getName()).append("&");
         }
 
-        if(direction.equals("prev")){
-            sb.append("pageNumber=").append(dto.getPageNumber()-1).append("&");
-            sb.append("pageSize=").append(dto.getPageSize()).append("&");
-        }else{
-            sb.append("pageNumber=").append(dto.getPageNumber()+1).append("&");
-            sb.append("pageSize=").append(dto.getPageSize()).append("&");
+        if(dto.getRegDateFrom() != null){
+            sb.append("regDateFrom=").append(dto.getRegDateFrom()).append("&");
         }
 
-        if(sb.lastIndexOf("&") == sb.length()-1){
-            sb.delete(sb.length()-1, sb.length());
+        if(dto.getRegDateTo() != null){
+            sb.append("regDateTo=").append(dto.getRegDateTo()).append("&");
         }
 
-        return sb.toString();
+        if(dto.getModDateFrom() != null){
+            sb.append("modDateFrom=").append(dto.getModDateFrom()).append("&");
+        }
+
+        if(dto.getModDateTo() != null){
+            sb.append("modDateTo=").append(dto.getModDateTo()).append("&");
+        }
+
+        if(dto.getSort() != null){
+            sb.append("sort=").append(dto.getSort().name()).append("&");
+        }
     }
 
     @Transactional
@@ -145,13 +278,11 @@ public class BookService {
         book.setAuthor(bookModifyRequestDto.getAuthor());
         book.setName(bookModifyRequestDto.getName());
         book.setModDate(LocalDateTime.now());
+        book.setCategoryMask(CategoryCode.toMask(bookModifyRequestDto.getCategoryCodeList()));
 
-        bookCategoryService.deleteAllByBookBookId(book.getBookId());
-        bookCategoryService.flush();
+        updateCategory(book, bookModifyRequestDto.getCategoryCodeList());
 
-        bookModifyRequestDto.getCategoryCodeList().forEach(
-                e -> bookCategoryService.save(BookCategory.builder().book(book).category(categoryService.findById(e.getCode())).build())
-        );
+        applicationEventPublisher.publishEvent(BookChangedEvent.modified(BookDocument.of(book)));
 
         BookResponseDto bookResponseDto = toBookResponseDto(book);
         bookResponseDto.setCategoryCodeList(bookModifyRequestDto.getCategoryCodeList());
@@ -161,10 +292,11 @@ public class BookService {
 
     @Transactional
     public void delete(BookDeleteRequestDto bookDeleteRequestDto){
+        //서적과 카테고리 행은 BookPurgeJob이 요청 경로 밖에서 지운다.
+        int count = bookRepository.markDeleted(bookDeleteRequestDto.getBookId());
+        if(count == 0) throw new CustomException(ResultCode.BOOK_SEARCH_NOT_FOUND);
 
-        bookCategoryService.deleteAllByBookBookId(bookDeleteRequestDto.getBookId());
-        Book book = bookRepository.findById(bookDeleteRequestDto.getBookId()).orElseThrow(()-> new CustomException(ResultCode.BOOK_SEARCH_NOT_FOUND));
-        bookRepository.delete(book);
+        applicationEventPublisher.publishEvent(BookChangedEvent.deleted(bookDeleteRequestDto.getBookId()));
     }
 
     public Book toBook(BookSaveRequestDto bookDto){
@@ -172,9 +304,34 @@ public class BookService {
                 .author(bookDto.getAuthor())
                 .name(bookDto.getName())
                 .status(bookDto.getStatusCode().name())
+                .categoryMask(bookDto.getCategoryCodeList() != null ? CategoryCode.toMask(bookDto.getCategoryCodeList()) : 0L)
                 .build();
     }
 
+    //기존 카테고리와 비교해 빠진 것만 지우고 추가된 것만 저장한다. 변경이 없으면 쿼리를 실행하지 않는다.
+    private void updateCategory(Book book, List<CategoryCode> categoryCodeList){
+        Set<Long> currentIdSet = new HashSet<>(bookCategoryService.findCategoryIdList(book.getBookId()));
+
+        Map<Long, CategoryCode> requestMap = new LinkedHashMap<>();
+        categoryCodeList.forEach(e -> requestMap.put(categoryRegistry.getCategoryId(e), e));
+
+        List<Long> removedIdList = currentIdSet.stream().filter(e -> !requestMap.containsKey(e)).toList();
+        List<CategoryCode> addedList = requestMap.entrySet()
+                .stream()
+                .filter(e -> !currentIdSet.contains(e.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+
+        if(!removedIdList.isEmpty()) bookCategoryService.deleteAllByBookIdAndCategoryIdIn(book.getBookId(), removedIdList);
+        if(!addedList.isEmpty()) bookCategoryService.saveAll(toBookCategoryList(book, addedList));
+    }
+
+    private List<BookCategory> toBookCategoryList(Book book, List<CategoryCode> categoryCodeList){
+        return categoryCodeList.stream()
+                .map(e -> BookCategory.builder().book(book).category(categoryRegistry.getReference(e)).build())
+                .toList();
+    }
+
     public BookResponseDto toBookResponseDto(Book book){
         return BookResponseDto.builder()
                 .bookId(book.getBookId())
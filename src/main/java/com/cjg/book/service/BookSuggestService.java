@@ -0,0 +1,29 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.ResultCode;
+import com.cjg.book.dto.response.BookSuggestDto;
+import com.cjg.book.exception.CustomException;
+import com.cjg.book.index.BookSuggestIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+//제목, 지은이 자동완성. DB를 조회하지 않고 메모리 색인(BookSuggestIndex)만 사용한다.
+@Service
+@RequiredArgsConstructor
+public class BookSuggestService {
+
+    private static final int MAX_QUERY_LENGTH = 50;
+    private static final int MAX_SIZE = 50;
+
+    private final BookSuggestIndex bookSuggestIndex;
+
+    public List<BookSuggestDto> suggest(String query, int size){
+        if(query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) throw new CustomException(ResultCode.BOOK_INVALID_QUERY);
+        if(size <= 0 || size > MAX_SIZE) throw new CustomException(ResultCode.PAGE_INVALID_SIZE);
+        if(!bookSuggestIndex.isReady()) throw new CustomException(ResultCode.BOOK_INDEX_NOT_READY);
+
+        return bookSuggestIndex.suggest(query, size);
+    }
+}
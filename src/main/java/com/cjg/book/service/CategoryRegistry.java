@@ -0,0 +1,68 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.domain.Category;
+import com.cjg.book.repository.CategoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+CategoryCode > Category 레지스트리
+category 테이블은 CategoryCode와 1:1로 대응하므로 기동 시 한번 읽어 검증하고, 이후에는 DB 조회 없이 Category 참조를 돌려준다.
+테이블과 enum이 어긋나 있으면 기동을 실패시킨다.
+*/
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CategoryRegistry {
+
+    private final CategoryRepository categoryRepository;
+
+    private Map<CategoryCode, Long> categoryIdMap = Map.of();
+
+    @PostConstruct
+    public void load(){
+        Map<Long, Category> tableMap = categoryRepository.findAll()
+                .stream()
+                .collect(Collectors.toMap(Category::getCategoryId, Function.identity()));
+
+        Map<CategoryCode, Long> map = new EnumMap<>(CategoryCode.class);
+        List<String> errorList = new ArrayList<>();
+
+        for(CategoryCode code : CategoryCode.values()){
+            Category category = tableMap.remove(code.getCode());
+
+            if(category == null){
+                errorList.add(code.name() + "(" + code.getCode() + ") : 테이블에 없음");
+            }else if(!code.name().equals(category.getName())){
+                errorList.add(code.name() + "(" + code.getCode() + ") : 테이블 이름 " + category.getName());
+            }else{
+                map.put(code, category.getCategoryId());
+            }
+        }
+
+        tableMap.values().forEach(e -> errorList.add(e.getName() + "(" + e.getCategoryId() + ") : CategoryCode에 없음"));
+
+        if(!errorList.isEmpty()){
+            throw new IllegalStateException("category 테이블과 CategoryCode가 일치하지 않습니다 " + errorList);
+        }
+
+        categoryIdMap = Collections.unmodifiableMap(map);
+        log.info("category registry loaded : {}", categoryIdMap.keySet());
+    }
+
+    public long getCategoryId(CategoryCode code){
+        return categoryIdMap.get(code);
+    }
+
+    //영속성 컨텍스트에 연결된 참조(프록시)를 돌려준다. 기동 시 존재를 확인했으므로 SELECT가 발생하지 않는다.
+    public Category getReference(CategoryCode code){
+        return categoryRepository.getReferenceById(getCategoryId(code));
+    }
+}
@@ -0,0 +1,110 @@
+package com.cjg.book.sql;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/*
+서로 의존하지 않는 조회를 가상 스레드에서 동시에 실행
+조회마다 별도의 읽기 전용 트랜잭션(= 풀에서 가져온 별도 커넥션)으로 실행하고, 하나가 실패하면 나머지를 기다리지 않고 그 예외를 그대로 던진다.
+실행 중인 조회는 interrupt하지 않는다. MariaDB 소켓을 읽는 중인 스레드를 interrupt하면 쿼리가 아니라 커넥션이 끊긴다.
+시작하지 않은 조회만 취소하고, 실행 중인 조회는 끝나면 커넥션을 풀에 돌려준다.
+트랜잭션 timeout이 JDBC 쿼리 timeout으로 적용되므로 실행 중인 쿼리도 query-timeout 이후에는 끝난다.
+커넥션을 조회 수만큼 사용하므로 각 조회가 충분히 무거울 때(목록 + count)만 사용한다.
+
+호출 스레드가 이미 트랜잭션(커넥션)을 가지고 있으면 순서대로 실행한다.
+커넥션을 쥔 채 다른 커넥션을 기다리면 풀이 부족할 때 서로 기다리다 멈출 수 있기 때문이다.
+*/
+@Component
+public class ParallelQueryExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    public ParallelQueryExecutor(PlatformTransactionManager transactionManager
+            , @Value("${book.parallel.enabled:true}") boolean enabled
+            , @Value("${book.parallel.query-timeout:30s}") Duration queryTimeout){
+        this.enabled = enabled;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) queryTimeout.toSeconds());
+    }
+
+    public boolean isParallel(){
+        return enabled && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    public <T> T readOnly(Supplier<T> query){
+        return readOnlyTransaction.execute(status -> query.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    public <A, B> Both<A, B> both(Supplier<A> first, Supplier<B> second){
+        if(!isParallel()) return new Both<>(readOnly(first), readOnly(second));
+
+        List<Object> resultList = invokeAll(List.of(first, second));
+        return new Both<>((A) resultList.get(0), (B) resultList.get(1));
+    }
+
+    private List<Object> invokeAll(List<Supplier<?>> queryList){
+        //요청 단위 SQL 기록(SqlStatementFilter)에 가상 스레드에서 실행한 SQL도 포함한다.
+        SqlStatementRecorder recorder = SqlStatementRecorder.current();
+
+        CompletionService<Object> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Object>> futureList = new ArrayList<>();
+        for(Supplier<?> query : queryList){
+            futureList.add(completionService.submit(() -> call(query, recorder)));
+        }
+
+        try{
+            //끝난 순서대로 확인하여 먼저 실패한 조회의 예외를 바로 던진다.
+            for(int i=0; i<futureList.size(); i++){
+                completionService.take().get();
+            }
+
+            List<Object> resultList = new ArrayList<>();
+            futureList.forEach(future -> resultList.add(future.resultNow()));
+            return resultList;
+        }catch(ExecutionException e){
+            throw unwrap(e.getCause());
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("parallel query interrupted", e);
+        }finally{
+            //이미 끝난 조회에는 영향이 없다.
+            futureList.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private Object call(Supplier<?> query, SqlStatementRecorder recorder){
+        if(recorder != null) recorder.attach();
+        try{
+            return readOnly(query);
+        }finally{
+            if(recorder != null) SqlStatementRecorder.stop();
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause){
+        if(cause instanceof RuntimeException runtimeException) return runtimeException;
+        if(cause instanceof Error error) throw error;
+        return new IllegalStateException(cause);
+    }
+
+    @PreDestroy
+    public void close(){
+        executor.close();
+    }
+
+    public record Both<A, B>(A first, B second) {}
+}
@@ -0,0 +1,67 @@
+package com.cjg.book.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+요청 단위 SQL 실행 수, DB 시간 기록
+book.request.sql.statements, book.request.sql.time(uri 태그)으로 남기고, 같은 모양의 SQL이 임계값 이상 실행되면 N+1 의심으로 경고 로그와 book.request.sql.n_plus_one을 남긴다.
+export처럼 응답을 다른 스레드에서 쓰는 비동기 처리 부분은 기록되지 않는다.
+*/
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${book.sql.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${book.sql.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold = 5;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementRecorder recorder = SqlStatementRecorder.start();
+        try{
+            filterChain.doFilter(request, response);
+        }finally{
+            SqlStatementRecorder.stop();
+            report(request, recorder);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementRecorder recorder){
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+        meterRegistry.summary("book.request.sql.statements", "uri", uri).record(recorder.getStatementCount());
+        meterRegistry.timer("book.request.sql.time", "uri", uri).record(recorder.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+        Map<String, Long> suspectedMap = recorder.suspectedNPlusOne(nPlusOneThreshold);
+        if(suspectedMap.isEmpty()) return;
+
+        meterRegistry.counter("book.request.sql.n_plus_one", "uri", uri).increment();
+        suspectedMap.forEach((shape, count) ->
+                log.warn("suspected N+1 : {} {} : {} times : {}", request.getMethod(), uri, count, shape));
+    }
+}
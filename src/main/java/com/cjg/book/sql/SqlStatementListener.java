@@ -0,0 +1,29 @@
+package com.cjg.book.sql;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/*
+p6spy로 감싼 DataSource에서 실행되는 모든 SQL(JPA, QueryDSL, JdbcTemplate)을 현재 스레드의 SqlStatementRecorder에 기록한다.
+Hibernate StatementInspector는 실행 시간을 알 수 없어 JDBC 단계에서 기록한다. 배치는 한번으로 세고, 배치로 보낸 행 수는 따로 기록한다.
+*/
+@Component
+public class SqlStatementListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        SqlStatementRecorder recorder = SqlStatementRecorder.current();
+        if(recorder != null) recorder.record(statementInformation.getSql(), timeElapsedNanos);
+    }
+
+    @Override
+    public void onAfterExecuteBatch(StatementInformation statementInformation, long timeElapsedNanos, int[] updateCounts, SQLException e) {
+        super.onAfterExecuteBatch(statementInformation, timeElapsedNanos, updateCounts, e);
+
+        SqlStatementRecorder recorder = SqlStatementRecorder.current();
+        if(recorder != null && updateCounts != null) recorder.recordBatch(updateCounts.length);
+    }
+}
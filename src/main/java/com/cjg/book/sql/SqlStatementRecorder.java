@@ -0,0 +1,111 @@
+package com.cjg.book.sql;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/*
+SQL 실행 기록
+start()로 현재 스레드에 기록을 시작하고 stop()으로 끝낸다. 기록 중 실행된 SQL은 SqlStatementListener가 넘겨준다.
+같은 모양(리터럴, IN 목록 크기를 제외한 SQL)이 여러번 실행되면 N+1로 의심한다.
+다른 스레드에서 실행한 쿼리도 같이 기록하려면 그 스레드에서 attach()로 같은 기록을 연결한다.
+*/
+public class SqlStatementRecorder {
+
+    private static final ThreadLocal<SqlStatementRecorder> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final Map<String, LongAdder> shapeCountMap = new ConcurrentHashMap<>();
+    private final LongAdder statementCount = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder batchedRowCount = new LongAdder();
+
+    public static SqlStatementRecorder start(){
+        SqlStatementRecorder recorder = new SqlStatementRecorder();
+        CURRENT.set(recorder);
+        return recorder;
+    }
+
+    public static void stop(){
+        CURRENT.remove();
+    }
+
+    //기록 중이 아니면 null
+    public static SqlStatementRecorder current(){
+        return CURRENT.get();
+    }
+
+    //다른 스레드에서 실행한 SQL을 이 기록에 더한다. 작업이 끝나면 stop()
+    public void attach(){
+        CURRENT.set(this);
+    }
+
+    public void record(String sql, long nanos){
+        statementCount.increment();
+        elapsedNanos.add(nanos);
+        shapeCountMap.computeIfAbsent(shape(sql), k -> new LongAdder()).increment();
+    }
+
+    //executeBatch 한번에 보낸 행 수
+    public void recordBatch(int rowCount){
+        batchCount.increment();
+        batchedRowCount.add(rowCount);
+    }
+
+    public long getStatementCount(){
+        return statementCount.sum();
+    }
+
+    //SQL 모양이 shapePrefix로 시작하는 실행 수(배치는 한번)
+    public long getStatementCount(String shapePrefix){
+        String prefix = shapePrefix.toLowerCase();
+        return shapeCountMap.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefix))
+                .mapToLong(e -> e.getValue().sum())
+                .sum();
+    }
+
+    public long getBatchCount(){
+        return batchCount.sum();
+    }
+
+    public long getBatchedRowCount(){
+        return batchedRowCount.sum();
+    }
+
+    public long getElapsedNanos(){
+        return elapsedNanos.sum();
+    }
+
+    //threshold번 이상 실행된 SQL 모양과 실행 횟수
+    public Map<String, Long> suspectedNPlusOne(int threshold){
+        return shapeCountMap.entrySet().stream()
+                .filter(e -> e.getValue().sum() >= threshold)
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum()));
+    }
+
+    public void reset(){
+        shapeCountMap.clear();
+        statementCount.reset();
+        elapsedNanos.reset();
+        batchCount.reset();
+        batchedRowCount.reset();
+    }
+
+    static String shape(String sql){
+        if(sql == null) return "";
+        String shape = COMMENT.matcher(sql).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim().toLowerCase();
+    }
+}
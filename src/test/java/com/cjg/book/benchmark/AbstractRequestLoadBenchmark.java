@@ -0,0 +1,177 @@
+package com.cjg.book.benchmark;
+
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.domain.Book;
+import com.cjg.book.repository.BookRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+요청 처리 부하 벤치마크
+같은 조건(동시 요청 수, 요청 수)으로 플랫폼 스레드 모드와 가상 스레드 모드의 처리량, p99 응답시간을 측정하고
+측정 중 JFR jdk.VirtualThreadPinned 이벤트를 수집하여 커넥션 풀, JDBC 드라이버에서 캐리어 스레드가 고정되는지 확인한다.
+DB를 사용하므로 기본 test 태스크에서는 제외하고 ./gradlew loadBenchmark로 실행한다.
+결과는 build/benchmark/request-load.csv에 누적된다.
+*/
+@Tag("benchmark")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
+        , properties = {"book.cache.enabled=false"}
+)
+abstract class AbstractRequestLoadBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final int REQUEST_COUNT = Integer.getInteger("benchmark.requests", 20000);
+    private static final int WARMUP_COUNT = Integer.getInteger("benchmark.warmup", 2000);
+    private static final int BOOK_COUNT = 200;
+    private static final String BENCHMARK_AUTHOR = "benchmark";
+
+    //캐리어 스레드 고정을 확인할 패키지 : 커넥션 풀, JDBC 드라이버
+    private static final List<String> POOL_PACKAGE_LIST = List.of("com.zaxxer.hikari.", "org.mariadb.jdbc.");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    private List<Book> bookList;
+
+    abstract String mode();
+
+    @BeforeEach
+    void setUp(){
+        List<Book> list = new ArrayList<>();
+        for(int i=0; i<BOOK_COUNT; i++){
+            list.add(Book.builder()
+                    .author(BENCHMARK_AUTHOR)
+                    .name("벤치마크" + i)
+                    .status(StatusCode.good.name())
+                    .build());
+        }
+        bookList = bookRepository.saveAll(list);
+    }
+
+    @AfterEach
+    void tearDown(){
+        bookRepository.deleteAll(bookList);
+    }
+
+    @Test
+    void load() throws Exception {
+        try(HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()){
+
+            run(client, WARMUP_COUNT);
+
+            List<RecordedEvent> pinnedList = new CopyOnWriteArrayList<>();
+            LoadResult result;
+
+            try(RecordingStream recordingStream = new RecordingStream()){
+                recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+                recordingStream.onEvent("jdk.VirtualThreadPinned", pinnedList::add);
+                recordingStream.startAsync();
+
+                result = run(client, REQUEST_COUNT);
+
+                recordingStream.stop();
+            }
+
+            long poolPinnedCount = pinnedList.stream().filter(this::isPoolFrame).count();
+            report(result, pinnedList.size(), poolPinnedCount);
+
+            Assertions.assertThat(result.errorCount()).isZero();
+            Assertions.assertThat(poolPinnedCount).isZero();
+        }
+    }
+
+    //개별 조회(PK)와 목록 조회를 번갈아 요청한다.
+    private LoadResult run(HttpClient client, int requestCount) throws InterruptedException {
+        Semaphore semaphore = new Semaphore(CONCURRENCY);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+        long[] latencyList = new long[requestCount];
+        AtomicInteger errorCount = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for(int i=0; i<requestCount; i++){
+            semaphore.acquire();
+
+            int index = i;
+            long requestStart = System.nanoTime();
+            client.sendAsync(toRequest(i), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        latencyList[index] = System.nanoTime() - requestStart;
+                        if(e != null || response.statusCode() != 200) errorCount.incrementAndGet();
+                        semaphore.release();
+                        latch.countDown();
+                    });
+        }
+        latch.await();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencyList);
+        return new LoadResult(
+                requestCount / (elapsed / 1_000_000_000.0)
+                , latencyList[(int) (requestCount * 0.50)] / 1_000_000.0
+                , latencyList[Math.min(requestCount - 1, (int) (requestCount * 0.99))] / 1_000_000.0
+                , errorCount.get()
+        );
+    }
+
+    private HttpRequest toRequest(int index){
+        String path = index % 2 == 0
+                ? "/v1/book/" + bookList.get(index % BOOK_COUNT).getBookId()
+                : "/v1/book/list?author=" + BENCHMARK_AUTHOR + "&pageNumber=" + (index % 10 + 1);
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private boolean isPoolFrame(RecordedEvent event){
+        if(event.getStackTrace() == null) return false;
+        for(RecordedFrame frame : event.getStackTrace().getFrames()){
+            String typeName = frame.getMethod().getType().getName();
+            if(POOL_PACKAGE_LIST.stream().anyMatch(typeName::startsWith)) return true;
+        }
+        return false;
+    }
+
+    private void report(LoadResult result, long pinnedCount, long poolPinnedCount) throws IOException {
+        String line = String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f,%d,%d,%d"
+                , mode(), CONCURRENCY, REQUEST_COUNT
+                , result.throughput(), result.p50(), result.p99()
+                , result.errorCount(), pinnedCount, poolPinnedCount);
+
+        System.out.println("mode,concurrency,requests,throughput(req/s),p50(ms),p99(ms),errors,pinned,poolPinned");
+        System.out.println(line);
+
+        Path path = Path.of("build", "benchmark", "request-load.csv");
+        Files.createDirectories(path.getParent());
+        if(Files.notExists(path)){
+            Files.writeString(path, "mode,concurrency,requests,throughput,p50,p99,errors,pinned,poolPinned\n", StandardCharsets.UTF_8);
+        }
+        Files.writeString(path, line + "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private record LoadResult(double throughput, double p50, double p99, int errorCount) {}
+}
@@ -0,0 +1,12 @@
+package com.cjg.book.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadLoadBenchmark extends AbstractRequestLoadBenchmark {
+
+    @Override
+    String mode(){
+        return "platform";
+    }
+}
@@ -0,0 +1,65 @@
+package com.cjg.book.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncCachesTest {
+
+    private final AsyncCache<Long, String> cache = Caffeine.newBuilder().buildAsync();
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    @Test
+    @DisplayName("같은 키를 동시에 조회하면 한번만 적재한다")
+    public void get_singleLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try(ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()){
+            Future<String> first = executor.submit(() -> AsyncCaches.get(cache, 1L, key -> {
+                loadCount.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "흑백요리사";
+            }));
+
+            loading.await();
+            Future<String> second = executor.submit(() -> AsyncCaches.get(cache, 1L, key -> {
+                loadCount.incrementAndGet();
+                return "다른 값";
+            }));
+            release.countDown();
+
+            Assertions.assertThat(first.get()).isEqualTo("흑백요리사");
+            Assertions.assertThat(second.get()).isEqualTo("흑백요리사");
+        }
+        Assertions.assertThat(loadCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("적재 실패 : loader의 예외를 그대로 던지고 캐시하지 않는다")
+    public void get_fail(){
+        Assertions.assertThatThrownBy(() -> AsyncCaches.get(cache, 1L, key -> {
+            throw new IllegalStateException("not found");
+        })).isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThat(AsyncCaches.get(cache, 1L, key -> "흑백요리사")).isEqualTo("흑백요리사");
+    }
+
+    private static void await(CountDownLatch latch){
+        try{
+            latch.await();
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
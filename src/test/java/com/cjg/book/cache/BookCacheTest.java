@@ -0,0 +1,110 @@
+package com.cjg.book.cache;
+
+import com.cjg.book.dto.response.BookResponseDto;
+import com.cjg.book.event.BookChangedEvent;
+import com.cjg.book.index.BookDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class BookCacheTest {
+
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    private final Function<Long, BookResponseDto> loader = bookId -> {
+        loadCount.incrementAndGet();
+        return BookResponseDto.builder().bookId(bookId).name("흑백요리사").build();
+    };
+
+    private BookCache newCache(boolean enabled, boolean jsonEnabled){
+        BookCache bookCache = new BookCache(new ObjectMapper());
+        ReflectionTestUtils.setField(bookCache, "enabled", enabled);
+        ReflectionTestUtils.setField(bookCache, "jsonEnabled", jsonEnabled);
+        bookCache.init();
+        return bookCache;
+    }
+
+    @Test
+    @DisplayName("캐시 적중")
+    public void get_hit(){
+        BookCache bookCache = newCache(true, false);
+
+        bookCache.get(1L, loader);
+        bookCache.get(1L, loader);
+
+        Assertions.assertThat(loadCount.get()).isEqualTo(1);
+        Assertions.assertThat(bookCache.stats().getDto().getHitCount()).isEqualTo(1);
+        Assertions.assertThat(bookCache.stats().getDto().getMissCount()).isEqualTo(1);
+        Assertions.assertThat(bookCache.stats().getJson()).isNull();
+    }
+
+    @Test
+    @DisplayName("수정, 삭제 이벤트는 무효화하고 저장 이벤트는 무시")
+    public void onBookChanged(){
+        BookCache bookCache = newCache(true, false);
+        BookDocument document = BookDocument.builder().bookId(1L).author("최종규").name("흑백요리사").build();
+
+        bookCache.get(1L, loader);
+        bookCache.onBookChanged(BookChangedEvent.saved(document));
+        bookCache.get(1L, loader);
+        Assertions.assertThat(loadCount.get()).isEqualTo(1);
+
+        bookCache.onBookChanged(BookChangedEvent.modified(document));
+        bookCache.get(1L, loader);
+        Assertions.assertThat(loadCount.get()).isEqualTo(2);
+
+        bookCache.onBookChanged(BookChangedEvent.deleted(1L));
+        bookCache.get(1L, loader);
+        Assertions.assertThat(loadCount.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("적재 중 무효화 : 잠금 밖에서 적재하므로 무효화가 기다리지 않고, 적재하던 이전 값은 남지 않는다")
+    public void get_invalidateWhileLoading(){
+        BookCache bookCache = newCache(true, false);
+
+        //적재 중에 수정이 커밋된 경우
+        bookCache.get(1L, bookId -> {
+            bookCache.invalidate(bookId);
+            return loader.apply(bookId);
+        });
+        bookCache.get(1L, loader);
+
+        Assertions.assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("캐시 사용 안함")
+    public void get_disabled(){
+        BookCache bookCache = newCache(false, true);
+
+        bookCache.get(1L, loader);
+        bookCache.get(1L, loader);
+
+        Assertions.assertThat(loadCount.get()).isEqualTo(2);
+        Assertions.assertThat(bookCache.isJsonEnabled()).isFalse();
+        Assertions.assertThat(bookCache.stats().isEnabled()).isFalse();
+    }
+
+    @Test
+    @DisplayName("직렬화 캐시")
+    public void getJson(){
+        BookCache bookCache = newCache(true, true);
+
+        byte[] first = bookCache.getJson(1L, id -> bookCache.get(id, loader));
+        byte[] second = bookCache.getJson(1L, id -> bookCache.get(id, loader));
+
+        Assertions.assertThat(second).isSameAs(first);
+        Assertions.assertThat(new String(first, StandardCharsets.UTF_8)).contains("흑백요리사");
+
+        bookCache.invalidate(1L);
+        bookCache.getJson(1L, id -> bookCache.get(id, loader));
+        Assertions.assertThat(loadCount.get()).isEqualTo(2);
+    }
+}
@@ -1,40 +1,73 @@
 package com.cjg.book.controller;
 
+import com.cjg.book.cache.BookCache;
 import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.CountMode;
+import com.cjg.book.code.ExportFormat;
+import com.cjg.book.code.ResultCode;
+import com.cjg.book.code.SortCode;
 import com.cjg.book.code.StatusCode;
+import com.cjg.book.code.SuggestType;
 import com.cjg.book.config.security.SecurityConfig;
+import com.cjg.book.domain.Book;
 import com.cjg.book.dto.request.BookDeleteRequestDto;
+import com.cjg.book.dto.request.BookFuzzySearchRequestDto;
 import com.cjg.book.dto.request.BookListRequestDto;
 import com.cjg.book.dto.request.BookModifyRequestDto;
 import com.cjg.book.dto.request.BookSaveRequestDto;
+import com.cjg.book.dto.response.BookBulkResponseDto;
+import com.cjg.book.dto.response.BookCacheStatsDto;
+import com.cjg.book.dto.response.BookFacetResponseDto;
 import com.cjg.book.dto.response.BookListResponseDto;
 import com.cjg.book.dto.response.BookResponseDto;
+import com.cjg.book.dto.response.BookSuggestDto;
+import com.cjg.book.service.BookBulkService;
+import com.cjg.book.service.BookExportService;
+import com.cjg.book.service.BookFacetService;
+import com.cjg.book.service.BookFuzzySearchService;
 import com.cjg.book.service.BookService;
+import com.cjg.book.service.BookSuggestService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /*
 단위 테스트 진행
@@ -60,6 +93,33 @@ public class BookControllerTest {
     @MockitoBean
     BookService bookService;
 
+    @MockitoBean
+    BookBulkService bookBulkService;
+
+    @MockitoBean
+    BookExportService bookExportService;
+
+    @MockitoBean
+    BookFacetService bookFacetService;
+
+    @MockitoBean
+    BookSuggestService bookSuggestService;
+
+    @MockitoBean
+    BookFuzzySearchService bookFuzzySearchService;
+
+    @MockitoBean
+    BookCache bookCache;
+
+    //SqlStatementFilter 의존성. @WebMvcTest는 metrics 자동 설정을 하지 않는다.
+    @TestConfiguration
+    static class MeterRegistryConfig {
+        @Bean
+        MeterRegistry meterRegistry(){
+            return new SimpleMeterRegistry();
+        }
+    }
+
     @Test
     @DisplayName("서적 저장 : 성공")
     void save_ok() throws Exception {
@@ -337,6 +397,29 @@ public class BookControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    @DisplayName("서적 수정 : 실패 : 다른 요청이 먼저 수정, 삭제")
+    void modify_fail_conflict() throws Exception{
+
+        BookModifyRequestDto dto = BookModifyRequestDto.builder()
+                .bookId(1L)
+                .categoryCodeList(List.of(CategoryCode.cook))
+                .author("최종규")
+                .name("흑백요리사")
+                .statusCode(StatusCode.good)
+                .build();
+
+        given(bookService.modify(any(BookModifyRequestDto.class))).willThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+        mvc.perform(put("/v1/book")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("409"))
+                .andExpect(jsonPath("$.message").value(ResultCode.BOOK_CONFLICT.getMessage()))
+                .andDo(print());
+    }
+
     @Test
     @DisplayName("서적 수정 : 실패 : 카테고리 null")
     void modify_fail_bookCategory_null() throws Exception{
@@ -733,4 +816,304 @@ public class BookControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    @DisplayName("서적 일괄 저장 : 성공")
+    public void bulkSave_ok() throws Exception{
+
+        BookBulkResponseDto bookBulkResponseDto = BookBulkResponseDto.builder()
+                .totalCount(2)
+                .successCount(2)
+                .failCount(0)
+                .failList(List.of())
+                .build();
+
+        given(bookBulkService.save(any())).willReturn(bookBulkResponseDto);
+
+        String body = "{\"categoryCodeList\":[\"cook\"],\"author\":\"최종규\",\"name\":\"흑백요리사\",\"statusCode\":\"good\"}\n"
+                + "{\"categoryCodeList\":[\"literature\"],\"author\":\"한강\",\"name\":\"소년이 온다\",\"statusCode\":\"good\"}\n";
+
+        mvc.perform(post("/v1/book/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("200"))
+                .andExpect(jsonPath("$.data.successCount").value(2))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 export : 성공")
+    public void export_ok() throws Exception{
+
+        willAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(2);
+            outputStream.write("bookId,author,name,statusCode,categoryCodeList,regDate,modDate\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(bookExportService).export(any(), eq(ExportFormat.csv), any());
+
+        MvcResult mvcResult = mvc.perform(get("/v1/book/export?format=csv&statusCode=good"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, Matchers.containsString("book.csv")))
+                .andExpect(content().string(Matchers.startsWith("bookId,")))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 export : 성공 : 기간 조건")
+    public void export_ok_dateRange() throws Exception{
+
+        MvcResult mvcResult = mvc.perform(get("/v1/book/export")
+                        .param("regDateFrom", "2026-01-01")
+                        .param("regDateTo", "2026-01-31")
+                        .param("modDateFrom", "2026-02-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(mvcResult)).andExpect(status().isOk());
+
+        then(bookExportService).should().export(argThat(dto -> LocalDate.of(2026, 1, 1).equals(dto.getRegDateFrom())
+                && LocalDate.of(2026, 1, 31).equals(dto.getRegDateTo())
+                && LocalDate.of(2026, 2, 1).equals(dto.getModDateFrom())), eq(ExportFormat.csv), any());
+    }
+
+    @Test
+    @DisplayName("서적 export : 실패 : 기간 역전")
+    public void export_fail_dateRange_reversed() throws Exception{
+        mvc.perform(get("/v1/book/export")
+                        .param("regDateFrom", "2026-02-01")
+                        .param("regDateTo", "2026-01-01"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 export : 실패 : 형식 오류")
+    public void export_fail_format() throws Exception{
+        mvc.perform(get("/v1/book/export?format=xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("400"))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 개별 조회 : 성공 : 직렬화 캐시 사용")
+    public void findById_ok_jsonCache() throws Exception{
+
+        given(bookCache.isJsonEnabled()).willReturn(true);
+        given(bookCache.getJson(eq(1L), any())).willReturn("{\"code\":\"200\",\"message\":\"도서 개별 조회 성공\",\"data\":{\"bookId\":1}}".getBytes(StandardCharsets.UTF_8));
+
+        mvc.perform(get("/v1/book/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data.bookId").value(1))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 개별 조회 캐시 통계 : 성공")
+    public void cacheStats_ok() throws Exception{
+
+        given(bookCache.stats()).willReturn(BookCacheStatsDto.builder()
+                .enabled(true)
+                .dto(BookCacheStatsDto.Tier.builder().size(1).hitCount(3).missCount(1).hitRate(0.75).build())
+                .build());
+
+        mvc.perform(get("/v1/book/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.dto.hitCount").value(3))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 건수 집계 : 성공")
+    public void facets_ok() throws Exception{
+
+        given(bookFacetService.facets(any(BookListRequestDto.class))).willReturn(BookFacetResponseDto.builder()
+                .totalCount(2L)
+                .categoryCountMap(Map.of(CategoryCode.cook, 2L, CategoryCode.literature, 1L))
+                .statusCountMap(Map.of(StatusCode.good, 2L))
+                .build());
+
+        mvc.perform(get("/v1/book/facets")
+                        .param("categoryCodeList", CategoryCode.cook.name())
+                        .param("statusCode", StatusCode.good.name()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalCount").value(2))
+                .andExpect(jsonPath("$.data.categoryCountMap.cook").value(2))
+                .andExpect(jsonPath("$.data.statusCountMap.good").value(2))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 건수 집계 : 성공 : 기간 조건")
+    public void facets_ok_dateRange() throws Exception{
+
+        given(bookFacetService.facets(any(BookListRequestDto.class))).willReturn(BookFacetResponseDto.builder()
+                .totalCount(1L)
+                .categoryCountMap(Map.of(CategoryCode.cook, 1L))
+                .statusCountMap(Map.of(StatusCode.good, 1L))
+                .build());
+
+        mvc.perform(get("/v1/book/facets")
+                        .param("modDateFrom", "2026-01-01")
+                        .param("modDateTo", "2026-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalCount").value(1))
+                .andDo(print());
+
+        then(bookFacetService).should().facets(argThat(dto -> LocalDate.of(2026, 1, 1).equals(dto.getModDateFrom())
+                && LocalDate.of(2026, 1, 31).equals(dto.getModDateTo())));
+    }
+
+    @Test
+    @DisplayName("서적 건수 집계 실패 : 지은이 공백")
+    public void facets_fail_author_blank() throws Exception{
+
+        mvc.perform(get("/v1/book/facets").param("author", " "))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+
+        then(bookFacetService).should(never()).facets(any(BookListRequestDto.class));
+    }
+
+    @Test
+    @DisplayName("서적 개별 조회 : 304 : ETag 일치")
+    public void findById_notModified() throws Exception{
+
+        given(bookService.getETag(1L)).willReturn("\"1-2025-01-02T03:04:05\"");
+
+        mvc.perform(get("/v1/book/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-2025-01-02T03:04:05\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-2025-01-02T03:04:05\""))
+                .andDo(print());
+
+        then(bookService).should(never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("서적 개별 조회 : 성공 : ETag 불일치")
+    public void findById_ok_eTagChanged() throws Exception{
+
+        given(bookService.getETag(1L)).willReturn("\"1-2025-01-02T03:04:06\"");
+        given(bookService.findById(1L)).willReturn(BookResponseDto.builder().bookId(1L).build());
+
+        mvc.perform(get("/v1/book/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-2025-01-02T03:04:05\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-2025-01-02T03:04:06\""))
+                .andExpect(jsonPath("$.data.bookId").value(1))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 리스트 검색 : 304 : 목록 변경 없음")
+    public void list_notModified() throws Exception{
+
+        given(bookService.getListETag(any())).willReturn("\"abc\"");
+
+        mvc.perform(get("/v1/book/list").header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andDo(print());
+
+        then(bookService).should(never()).list(any());
+    }
+
+    @Test
+    @DisplayName("서적 리스트 조회 : 전체 건수 계산 방식 전달")
+    public void list_countMode() throws Exception{
+
+        given(bookService.getListETag(any())).willReturn("\"abc\"");
+        given(bookService.list(argThat(dto -> dto.getCountMode() == CountMode.cached))).willReturn(BookListResponseDto.builder()
+                .bookList(List.of())
+                .pageNumber(1)
+                .totalPage(1)
+                .totalCount(0L)
+                .countMode(CountMode.cached)
+                .build());
+
+        mvc.perform(get("/v1/book/list").param("countMode", CountMode.cached.name()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.countMode").value(CountMode.cached.name()))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 리스트 조회 : 정렬, 기간 조건 전달")
+    public void list_sortAndDateRange() throws Exception{
+
+        given(bookService.getListETag(any())).willReturn("\"abc\"");
+        given(bookService.list(argThat(dto -> dto.getSort() == SortCode.name_asc
+                && LocalDate.of(2025, 1, 1).equals(dto.getRegDateFrom())
+                && LocalDate.of(2025, 1, 31).equals(dto.getRegDateTo())))).willReturn(BookListResponseDto.builder()
+                .bookList(List.of())
+                .pageNumber(1)
+                .totalPage(1)
+                .totalCount(0L)
+                .build());
+
+        mvc.perform(get("/v1/book/list")
+                        .param("sort", SortCode.name_asc.name())
+                        .param("regDateFrom", "2025-01-01")
+                        .param("regDateTo", "2025-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalCount").value(0))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 리스트 조회 : 실패 : 시작일이 종료일보다 늦을 때")
+    public void list_fail_dateRange_reversed() throws Exception{
+        mvc.perform(get("/v1/book/list?regDateFrom=2025-02-01&regDateTo=2025-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ResultCode.BOOK_INVALID_DATE_RANGE.getMessage()))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 리스트 조회 : 실패 : 커서 페이징에 다른 정렬")
+    public void list_fail_cursor_sort() throws Exception{
+        mvc.perform(get("/v1/book/list?cursor=&sort=name_asc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(ResultCode.PAGE_INVALID_SORT.getMessage()))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 자동완성 : 성공")
+    public void suggest_ok() throws Exception{
+
+        given(bookSuggestService.suggest("ㅎㅂ", 10)).willReturn(List.of(new BookSuggestDto(SuggestType.name, "흑백요리사", 2L)));
+
+        mvc.perform(get("/v1/book/suggest").param("query", "ㅎㅂ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].type").value(SuggestType.name.name()))
+                .andExpect(jsonPath("$.data[0].text").value("흑백요리사"))
+                .andExpect(jsonPath("$.data[0].bookCount").value(2))
+                .andDo(print());
+    }
+
+    @Test
+    @DisplayName("서적 오타 허용 검색 : 성공")
+    public void search_ok() throws Exception{
+
+        BookListResponseDto bookListResponseDto = BookListResponseDto.builder()
+                .bookList(List.of(BookResponseDto.builder().bookId(1L).author("최종규").name("흑백요리사").statusCode(StatusCode.good).build()))
+                .pageNumber(1)
+                .totalPage(1)
+                .totalCount(1L)
+                .build();
+
+        given(bookFuzzySearchService.search(any(BookFuzzySearchRequestDto.class))).willReturn(bookListResponseDto);
+
+        mvc.perform(get("/v1/book/search").param("query", "흑백요리서"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.bookList[0].bookId").value(1))
+                .andExpect(jsonPath("$.data.totalCount").value(1))
+                .andDo(print());
+    }
+
 }
@@ -0,0 +1,35 @@
+package com.cjg.book.index;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+public class BkTreeTest {
+
+    @Test
+    @DisplayName("편집 거리")
+    public void distance(){
+        Assertions.assertThat(BkTree.distance("kitten", "sitting")).isEqualTo(3);
+        Assertions.assertThat(BkTree.distance("", "abc")).isEqualTo(3);
+        Assertions.assertThat(BkTree.distance("abc", "abc")).isZero();
+    }
+
+    @Test
+    @DisplayName("거리 이내 검색 : 모든 키와 거리를 계산한 결과와 같다")
+    public void search(){
+        BkTree bkTree = new BkTree();
+        String[] keys = {"book", "books", "cake", "boo", "cape", "cart", "boon", "cook"};
+        for(String key : keys) bkTree.add(key);
+
+        Assertions.assertThat(bkTree.add("book")).isFalse();
+        Assertions.assertThat(bkTree.size()).isEqualTo(keys.length);
+
+        for(int distance=0; distance<=2; distance++){
+            int max = distance;
+            String[] expected = Arrays.stream(keys).filter(e -> BkTree.distance("bok", e) <= max).toArray(String[]::new);
+            Assertions.assertThat(bkTree.search("bok", distance)).extracting(BkTree.Match::key).containsExactlyInAnyOrder(expected);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.cjg.book.index;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.StatusCode;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+public class BookFacetIndexTest {
+
+    private BookFacetIndex bookFacetIndex;
+
+    @BeforeEach
+    public void setUp(){
+        bookFacetIndex = new BookFacetIndex();
+        bookFacetIndex.put(document(1L, StatusCode.good, CategoryCode.cook, CategoryCode.cook_general));
+        bookFacetIndex.put(document(2L, StatusCode.good, CategoryCode.cook));
+        bookFacetIndex.put(document(3L, StatusCode.damage, CategoryCode.literature));
+        bookFacetIndex.put(document(4L, StatusCode.lost));
+        bookFacetIndex.markReady();
+    }
+
+    private BookDocument document(long bookId, StatusCode statusCode, CategoryCode... categoryCodes){
+        return BookDocument.builder()
+                .bookId(bookId)
+                .status(statusCode.name())
+                .categoryMask(CategoryCode.toMask(List.of(categoryCodes)))
+                .build();
+    }
+
+    @Test
+    @DisplayName("건수 : 조건 없음")
+    public void count_all(){
+        BookFacetIndex.FacetCount facetCount = bookFacetIndex.count(null, null, null);
+
+        Assertions.assertThat(facetCount.totalCount()).isEqualTo(4L);
+        Assertions.assertThat(facetCount.categoryCountMap())
+                .containsEntry(CategoryCode.cook, 2L)
+                .containsEntry(CategoryCode.cook_general, 1L)
+                .containsEntry(CategoryCode.literature, 1L)
+                .hasSize(CategoryCode.values().length);
+        Assertions.assertThat(facetCount.statusCountMap())
+                .containsEntry(StatusCode.good, 2L)
+                .containsEntry(StatusCode.damage, 1L)
+                .containsEntry(StatusCode.lost, 1L);
+    }
+
+    @Test
+    @DisplayName("건수 : 카테고리별 건수는 카테고리 조건을, 상태별 건수는 상태 조건을 제외하고 센다")
+    public void count_filter(){
+        BookFacetIndex.FacetCount facetCount = bookFacetIndex.count(null, List.of(CategoryCode.cook), StatusCode.good);
+
+        Assertions.assertThat(facetCount.totalCount()).isEqualTo(2L);
+        Assertions.assertThat(facetCount.categoryCountMap())
+                .containsEntry(CategoryCode.cook, 2L)
+                .containsEntry(CategoryCode.literature, 0L);
+        Assertions.assertThat(facetCount.statusCountMap())
+                .containsEntry(StatusCode.good, 2L)
+                .containsEntry(StatusCode.damage, 0L);
+    }
+
+    @Test
+    @DisplayName("건수 : 지은이/제목 후보로 제한")
+    public void count_text(){
+        BookFacetIndex.FacetCount facetCount = bookFacetIndex.count(Set.of(1L, 3L), null, null);
+
+        Assertions.assertThat(facetCount.totalCount()).isEqualTo(2L);
+        Assertions.assertThat(facetCount.categoryCountMap()).containsEntry(CategoryCode.cook, 1L);
+        Assertions.assertThat(facetCount.statusCountMap())
+                .containsEntry(StatusCode.good, 1L)
+                .containsEntry(StatusCode.damage, 1L);
+    }
+
+    @Test
+    @DisplayName("수정, 삭제 반영")
+    public void putAndRemove(){
+        bookFacetIndex.put(document(2L, StatusCode.damage, CategoryCode.literature));
+        bookFacetIndex.remove(4L);
+
+        BookFacetIndex.FacetCount facetCount = bookFacetIndex.count(null, null, null);
+
+        Assertions.assertThat(facetCount.totalCount()).isEqualTo(3L);
+        Assertions.assertThat(facetCount.categoryCountMap())
+                .containsEntry(CategoryCode.cook, 1L)
+                .containsEntry(CategoryCode.literature, 2L);
+        Assertions.assertThat(facetCount.statusCountMap())
+                .containsEntry(StatusCode.good, 1L)
+                .containsEntry(StatusCode.damage, 2L)
+                .containsEntry(StatusCode.lost, 0L);
+    }
+
+    @Test
+    @DisplayName("clear : 준비 상태 해제")
+    public void clear(){
+        bookFacetIndex.clear();
+
+        Assertions.assertThat(bookFacetIndex.isReady()).isFalse();
+        Assertions.assertThat(bookFacetIndex.count(null, null, null).totalCount()).isZero();
+    }
+}
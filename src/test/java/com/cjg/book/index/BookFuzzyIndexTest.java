@@ -0,0 +1,54 @@
+package com.cjg.book.index;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BookFuzzyIndexTest {
+
+    private BookFuzzyIndex bookFuzzyIndex;
+
+    @BeforeEach
+    public void setUp(){
+        bookFuzzyIndex = new BookFuzzyIndex();
+        bookFuzzyIndex.put(BookDocument.builder().bookId(1L).author("최종규").name("흑백요리사").build());
+        bookFuzzyIndex.put(BookDocument.builder().bookId(2L).author("홍길동").name("흑백요리사 시즌2").build());
+        bookFuzzyIndex.put(BookDocument.builder().bookId(3L).author("Martin Fowler").name("Refactoring").build());
+        bookFuzzyIndex.markReady();
+    }
+
+    @Test
+    @DisplayName("오타 허용 검색 : 자모 하나 틀린 제목, 단어 일치 포함, 최신 서적 먼저")
+    public void search_typo(){
+        Assertions.assertThat(bookFuzzyIndex.search("흑백요리서", null))
+                .containsExactly(new BookFuzzyIndex.FuzzyMatch(2L, 1), new BookFuzzyIndex.FuzzyMatch(1L, 1));
+
+        Assertions.assertThat(bookFuzzyIndex.search("refactorng", null))
+                .containsExactly(new BookFuzzyIndex.FuzzyMatch(3L, 1));
+
+        Assertions.assertThat(bookFuzzyIndex.search("fowlr", null))
+                .containsExactly(new BookFuzzyIndex.FuzzyMatch(3L, 1));
+    }
+
+    @Test
+    @DisplayName("오타 허용 검색 : 거리순, 허용 거리 밖은 제외")
+    public void search_distance(){
+        Assertions.assertThat(bookFuzzyIndex.search("홍길도", 0)).isEmpty();
+        Assertions.assertThat(bookFuzzyIndex.search("홍길도", 1)).containsExactly(new BookFuzzyIndex.FuzzyMatch(2L, 1));
+
+        bookFuzzyIndex.put(BookDocument.builder().bookId(4L).author("홍길도").name("요리").build());
+        Assertions.assertThat(bookFuzzyIndex.search("홍길도", 1))
+                .containsExactly(new BookFuzzyIndex.FuzzyMatch(4L, 0), new BookFuzzyIndex.FuzzyMatch(2L, 1));
+    }
+
+    @Test
+    @DisplayName("오타 허용 검색 : 수정, 삭제 반영")
+    public void putAndRemove(){
+        bookFuzzyIndex.put(BookDocument.builder().bookId(1L).author("최종규").name("백종원 레시피").build());
+        bookFuzzyIndex.remove(2L);
+
+        Assertions.assertThat(bookFuzzyIndex.search("흑백요리서", null)).isEmpty();
+        Assertions.assertThat(bookFuzzyIndex.search("백종언", null)).containsExactly(new BookFuzzyIndex.FuzzyMatch(1L, 1));
+    }
+}
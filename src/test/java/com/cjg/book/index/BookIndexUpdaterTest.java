@@ -0,0 +1,82 @@
+package com.cjg.book.index;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.domain.Book;
+import com.cjg.book.event.BookChangedEvent;
+import com.cjg.book.repository.BookRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class BookIndexUpdaterTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookTextIndex bookTextIndex = new BookTextIndex();
+    private final BookFacetIndex bookFacetIndex = new BookFacetIndex();
+    private final BookIndexUpdater bookIndexUpdater = new BookIndexUpdater(List.of(bookTextIndex, bookFacetIndex), bookRepository);
+
+    @Test
+    @DisplayName("기동 색인 : 전체 서적을 나눠 읽어 색인")
+    public void rebuild(){
+        Book book1 = Book.builder().bookId(1L).author("최종규").name("흑백요리사").status(StatusCode.good.name()).regDate(LocalDateTime.now()).build();
+        Book book2 = Book.builder().bookId(2L).author("홍길동").name("요리 일반").status(StatusCode.good.name()).categoryMask(CategoryCode.cook.getBit()).regDate(LocalDateTime.now()).build();
+
+        given(bookRepository.findTop1000ByBookIdGreaterThanOrderByBookIdAsc(0L)).willReturn(List.of(book1, book2));
+        given(bookRepository.findTop1000ByBookIdGreaterThanOrderByBookIdAsc(2L)).willReturn(List.of());
+
+        bookIndexUpdater.rebuild();
+
+        Assertions.assertThat(bookTextIndex.isReady()).isTrue();
+        Assertions.assertThat(bookTextIndex.search(null, "요리")).containsExactlyInAnyOrder(1L, 2L);
+        Assertions.assertThat(bookFacetIndex.isReady()).isTrue();
+        Assertions.assertThat(bookFacetIndex.count(null, List.of(CategoryCode.cook), null).totalCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("기동 색인 : 다시 만드는 중에 커밋된 수정, 삭제는 이전에 읽은 값으로 덮어쓰지 않는다")
+    public void rebuild_changedWhileLoading(){
+        Book book1 = Book.builder().bookId(1L).author("최종규").name("흑백요리사").status(StatusCode.good.name()).regDate(LocalDateTime.now()).build();
+        Book book2 = Book.builder().bookId(2L).author("홍길동").name("요리 일반").status(StatusCode.good.name()).regDate(LocalDateTime.now()).build();
+
+        //chunk를 읽은 직후 두 서적이 수정, 삭제되어 커밋된 경우
+        given(bookRepository.findTop1000ByBookIdGreaterThanOrderByBookIdAsc(0L)).willAnswer(invocation -> {
+            bookIndexUpdater.onBookChanged(BookChangedEvent.modified(BookDocument.builder().bookId(1L).author("최종규").name("소년이 온다").status(StatusCode.good.name()).build()));
+            bookIndexUpdater.onBookChanged(BookChangedEvent.deleted(2L));
+            return List.of(book1, book2);
+        });
+        given(bookRepository.findTop1000ByBookIdGreaterThanOrderByBookIdAsc(2L)).willReturn(List.of());
+
+        bookIndexUpdater.rebuild();
+
+        Assertions.assertThat(bookTextIndex.search(null, "흑백")).isEmpty();
+        Assertions.assertThat(bookTextIndex.search(null, "소년")).containsExactly(1L);
+        Assertions.assertThat(bookTextIndex.search("홍길동", null)).isEmpty();
+        Assertions.assertThat(bookFacetIndex.count(null, null, null).totalCount()).isEqualTo(1L);
+
+        //다시 만든 뒤의 변경은 바로 반영한다.
+        bookIndexUpdater.onBookChanged(BookChangedEvent.deleted(1L));
+        Assertions.assertThat(bookTextIndex.search(null, "소년")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("서적 변경 이벤트 반영")
+    public void onBookChanged(){
+        bookTextIndex.markReady();
+
+        bookIndexUpdater.onBookChanged(BookChangedEvent.saved(BookDocument.builder().bookId(1L).author("최종규").name("흑백요리사").build()));
+        Assertions.assertThat(bookTextIndex.search("최종규", null)).containsExactly(1L);
+
+        bookIndexUpdater.onBookChanged(BookChangedEvent.modified(BookDocument.builder().bookId(1L).author("홍길동").name("흑백요리사").build()));
+        Assertions.assertThat(bookTextIndex.search("최종규", null)).isEmpty();
+
+        bookIndexUpdater.onBookChanged(BookChangedEvent.deleted(1L));
+        Assertions.assertThat(bookTextIndex.search(null, "흑백")).isEmpty();
+    }
+}
@@ -0,0 +1,89 @@
+package com.cjg.book.index;
+
+import com.cjg.book.code.SuggestType;
+import com.cjg.book.dto.response.BookSuggestDto;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class BookSuggestIndexTest {
+
+    private BookSuggestIndex bookSuggestIndex;
+
+    @BeforeEach
+    public void setUp(){
+        bookSuggestIndex = new BookSuggestIndex();
+        bookSuggestIndex.put(BookDocument.builder().bookId(1L).author("최종규").name("흑백요리사").build());
+        bookSuggestIndex.put(BookDocument.builder().bookId(2L).author("최종규").name("흑백요리사2").build());
+        bookSuggestIndex.put(BookDocument.builder().bookId(3L).author("홍길동").name("요리 일반").build());
+        bookSuggestIndex.put(BookDocument.builder().bookId(4L).author("Martin Fowler").name("Refactoring").build());
+        bookSuggestIndex.markReady();
+    }
+
+    private List<String> texts(List<BookSuggestDto> list){
+        return list.stream().map(BookSuggestDto::getText).toList();
+    }
+
+    @Test
+    @DisplayName("자동완성 : 앞부분 일치, 짧은 순")
+    public void suggest_prefix(){
+        Assertions.assertThat(texts(bookSuggestIndex.suggest("흑백", 10))).containsExactly("흑백요리사", "흑백요리사2");
+        Assertions.assertThat(texts(bookSuggestIndex.suggest("refa", 10))).containsExactly("Refactoring");
+    }
+
+    @Test
+    @DisplayName("자동완성 : 초성, 초성 섞인 검색어")
+    public void suggest_chosung(){
+        Assertions.assertThat(texts(bookSuggestIndex.suggest("ㅎㅂㅇㄹㅅ", 10))).containsExactly("흑백요리사", "흑백요리사2");
+        Assertions.assertThat(texts(bookSuggestIndex.suggest("흑ㅂ", 10))).containsExactly("흑백요리사", "흑백요리사2");
+        Assertions.assertThat(bookSuggestIndex.suggest("학ㅂ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("자동완성 : 초성 섞인 검색어 : 초성만 같은 서적이 최대 후보 수보다 많아도 일치하는 서적을 찾는다")
+    public void suggest_chosung_overCandidateSize(){
+        //초성이 정확히 "ㅎㅂ"인 제목(하바, 하박, ..., 허바, ...)은 "흑백요리사"보다 트라이에서 먼저 읽힌다.
+        long bookId = 100L;
+        for(char first : new char[]{'하', '허'}){
+            for(char second = '바'; second < '바' + 588; second++){
+                bookSuggestIndex.put(BookDocument.builder().bookId(bookId++).name("" + first + second).build());
+            }
+        }
+
+        Assertions.assertThat(texts(bookSuggestIndex.suggest("흑ㅂ", 10))).containsExactly("흑백요리사", "흑백요리사2");
+    }
+
+    @Test
+    @DisplayName("자동완성 : 단어 시작 일치는 전체 앞부분 일치보다 뒤, 같은 지은이는 한번")
+    public void suggest_wordStart(){
+        bookSuggestIndex.put(BookDocument.builder().bookId(5L).author("김철수").name("일반 상식").build());
+
+        List<BookSuggestDto> result = bookSuggestIndex.suggest("일반", 10);
+        Assertions.assertThat(texts(result)).containsExactly("일반 상식", "요리 일반");
+
+        List<BookSuggestDto> author = bookSuggestIndex.suggest("ㅊㅈㄱ", 10);
+        Assertions.assertThat(author).hasSize(1);
+        Assertions.assertThat(author.getFirst().getType()).isEqualTo(SuggestType.author);
+        Assertions.assertThat(author.getFirst().getBookCount()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("자동완성 : 수정, 삭제 반영")
+    public void putAndRemove(){
+        bookSuggestIndex.put(BookDocument.builder().bookId(1L).author("최종규").name("백종원 레시피").build());
+        Assertions.assertThat(texts(bookSuggestIndex.suggest("흑백", 10))).containsExactly("흑백요리사2");
+
+        bookSuggestIndex.remove(2L);
+        Assertions.assertThat(bookSuggestIndex.suggest("흑백", 10)).isEmpty();
+        Assertions.assertThat(bookSuggestIndex.suggest("ㅊㅈㄱ", 10).getFirst().getBookCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("자동완성 : size개까지")
+    public void suggest_size(){
+        Assertions.assertThat(bookSuggestIndex.suggest("ㅎ", 1)).hasSize(1);
+    }
+}
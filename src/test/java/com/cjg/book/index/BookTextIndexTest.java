@@ -0,0 +1,96 @@
+package com.cjg.book.index;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+import java.util.Set;
+
+public class BookTextIndexTest {
+
+    private BookTextIndex bookTextIndex;
+
+    @BeforeEach
+    public void setUp(){
+        bookTextIndex = new BookTextIndex();
+        bookTextIndex.put(BookDocument.builder().bookId(1L).author("최종규").name("흑백요리사").build());
+        bookTextIndex.put(BookDocument.builder().bookId(2L).author("최종규").name("흑백요리사2").build());
+        bookTextIndex.put(BookDocument.builder().bookId(3L).author("홍길동").name("요리 일반").build());
+        bookTextIndex.put(BookDocument.builder().bookId(4L).author("Martin Fowler").name("Refactoring").build());
+        bookTextIndex.markReady();
+    }
+
+    @Test
+    @DisplayName("검색 : 준비 전에는 null")
+    public void search_notReady(){
+        BookTextIndex index = new BookTextIndex();
+        Assertions.assertThat(index.search("최종규", null)).isNull();
+    }
+
+    @Test
+    @DisplayName("검색 : 한글 부분 일치")
+    public void search_korean(){
+        Assertions.assertThat(bookTextIndex.search(null, "요리")).containsExactlyInAnyOrder(1L, 2L, 3L);
+        Assertions.assertThat(bookTextIndex.search(null, "백요리")).containsExactlyInAnyOrder(1L, 2L);
+        Assertions.assertThat(bookTextIndex.search(null, "사2")).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("검색 : 한 글자")
+    public void search_singleCharacter(){
+        Assertions.assertThat(bookTextIndex.search("홍", null)).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("검색 : 바이그램은 모두 있지만 연속되지 않은 문자열은 제외")
+    public void search_verifyOriginalText(){
+        bookTextIndex.put(BookDocument.builder().bookId(5L).author("가나").name("요리 리사").build());
+        Assertions.assertThat(bookTextIndex.search(null, "요리사")).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("검색 : 자모가 분리된(NFD) 검색어도 일치")
+    public void search_nfd(){
+        String query = Normalizer.normalize("요리", Normalizer.Form.NFD);
+        Assertions.assertThat(bookTextIndex.search(null, query)).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("검색 : 대소문자 무시, 지은이와 제목 모두 만족")
+    public void search_ignoreCaseAndIntersect(){
+        Assertions.assertThat(bookTextIndex.search("fowler", "REFACTOR")).containsExactly(4L);
+        Assertions.assertThat(bookTextIndex.search("최종규", "일반")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("수정, 삭제 반영")
+    public void putAndRemove(){
+        bookTextIndex.put(BookDocument.builder().bookId(1L).author("최종규").name("한식대첩").build());
+        bookTextIndex.remove(2L);
+
+        Assertions.assertThat(bookTextIndex.search(null, "흑백")).isEmpty();
+        Assertions.assertThat(bookTextIndex.search(null, "한식")).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("관련도 : 완전 일치 > 앞부분 일치 > 부분 일치")
+    public void score(){
+        bookTextIndex.put(BookDocument.builder().bookId(5L).author("가나").name("요리").build());
+
+        int exact = bookTextIndex.score(5L, null, "요리");
+        int prefix = bookTextIndex.score(3L, null, "요리");
+        int contains = bookTextIndex.score(1L, null, "요리");
+
+        Assertions.assertThat(exact).isGreaterThan(prefix);
+        Assertions.assertThat(prefix).isGreaterThan(contains);
+        Assertions.assertThat(bookTextIndex.score(4L, null, "요리")).isZero();
+    }
+
+    @Test
+    @DisplayName("토큰 : 유니그램 + 바이그램")
+    public void tokenize(){
+        Assertions.assertThat(BookTextIndex.tokenize("흑백요")).isEqualTo(Set.of("흑", "백", "요", "흑백", "백요"));
+    }
+}
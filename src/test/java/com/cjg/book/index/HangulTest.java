@@ -0,0 +1,32 @@
+package com.cjg.book.index;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class HangulTest {
+
+    @Test
+    @DisplayName("초성 : 한글 음절만 바꾸고 나머지는 그대로")
+    public void toChosung(){
+        Assertions.assertThat(Hangul.toChosung("흑백요리사")).isEqualTo("ㅎㅂㅇㄹㅅ");
+        Assertions.assertThat(Hangul.toChosung("요리 101")).isEqualTo("ㅇㄹ 101");
+        Assertions.assertThat(Hangul.toChosung("까치")).isEqualTo("ㄲㅊ");
+    }
+
+    @Test
+    @DisplayName("자모 분해")
+    public void decompose(){
+        Assertions.assertThat(Hangul.decompose("흑백")).isEqualTo("ㅎㅡㄱㅂㅐㄱ");
+        Assertions.assertThat(Hangul.decompose("요리")).isEqualTo("ㅇㅛㄹㅣ");
+        Assertions.assertThat(Hangul.decompose("닭a")).isEqualTo("ㄷㅏㄺa");
+    }
+
+    @Test
+    @DisplayName("자음 포함 여부")
+    public void containsConsonant(){
+        Assertions.assertThat(Hangul.containsConsonant("흑ㅂ")).isTrue();
+        Assertions.assertThat(Hangul.containsConsonant("흑백")).isFalse();
+        Assertions.assertThat(Hangul.containsConsonant("ㅏ")).isFalse();
+    }
+}
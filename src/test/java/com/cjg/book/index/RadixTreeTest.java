@@ -0,0 +1,53 @@
+package com.cjg.book.index;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RadixTreeTest {
+
+    @Test
+    @DisplayName("앞부분 검색 : 간선 중간에서 끝나는 검색어 포함")
+    public void prefixSearch(){
+        RadixTree<Long> tree = new RadixTree<>();
+        tree.put("흑백요리사", 1L);
+        tree.put("흑백요리사2", 2L);
+        tree.put("흑역사", 3L);
+        tree.put("요리", 4L);
+
+        Assertions.assertThat(tree.prefixSearch("흑", 10)).containsExactlyInAnyOrder(1L, 2L, 3L);
+        Assertions.assertThat(tree.prefixSearch("흑백요", 10)).containsExactlyInAnyOrder(1L, 2L);
+        Assertions.assertThat(tree.prefixSearch("흑백요리사", 10)).containsExactly(1L, 2L);
+        Assertions.assertThat(tree.prefixSearch("흑백x", 10)).isEmpty();
+        Assertions.assertThat(tree.prefixSearch("", 10)).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("앞부분 검색 : 짧은 키부터 limit개")
+    public void prefixSearch_limit(){
+        RadixTree<Long> tree = new RadixTree<>();
+        tree.put("가나다라", 3L);
+        tree.put("가나", 1L);
+        tree.put("가나다", 2L);
+
+        Assertions.assertThat(tree.prefixSearch("가", 2)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("삭제 : 값이 없는 노드는 지우고 다시 합친다")
+    public void remove(){
+        RadixTree<Long> tree = new RadixTree<>();
+        tree.put("흑백요리사", 1L);
+        tree.put("흑역사", 2L);
+        tree.put("흑백", 3L);
+
+        tree.remove("흑백", 3L);
+        Assertions.assertThat(tree.prefixSearch("흑백", 10)).containsExactly(1L);
+
+        tree.remove("흑백요리사", 1L);
+        Assertions.assertThat(tree.prefixSearch("흑", 10)).containsExactly(2L);
+
+        tree.remove("흑역사", 2L);
+        Assertions.assertThat(tree.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,107 @@
+package com.cjg.book.job;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.domain.Book;
+import com.cjg.book.domain.BookCategory;
+import com.cjg.book.domain.Category;
+import com.cjg.book.repository.BookCategoryRepository;
+import com.cjg.book.repository.BookRepository;
+import com.cjg.book.repository.TestConfig;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+@DataJpaTest
+@Import({TestConfig.class, BookPurgeJob.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource("classpath:application.properties")
+public class BookPurgeJobTest {
+
+    @Autowired
+    private BookPurgeJob bookPurgeJob;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookCategoryRepository bookCategoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Book saveBook(String name){
+        Book book = bookRepository.save(Book.builder()
+                .author("최종규")
+                .name(name)
+                .status(StatusCode.good.name())
+                .build());
+
+        for(CategoryCode code : List.of(CategoryCode.cook, CategoryCode.cook_general)){
+            bookCategoryRepository.save(BookCategory.builder()
+                    .book(book)
+                    .category(Category.builder().categoryId(code.getCode()).name(code.name()).build())
+                    .build());
+        }
+        return book;
+    }
+
+    private long rowCount(String table, long bookId){
+        return jdbcTemplate.queryForObject("select count(*) from " + table + " where book_id = ?", Long.class, bookId);
+    }
+
+    @Test
+    @DisplayName("삭제 표시된 서적 정리 : 서적과 카테고리를 지우고 표시되지 않은 서적은 남긴다")
+    public void run(){
+
+        Book deleted = saveBook("흑백요리사");
+        Book alive = saveBook("흑백요리사2");
+        entityManager.flush();
+
+        bookRepository.markDeleted(deleted.getBookId());
+        entityManager.clear();
+
+        Assertions.assertThat(bookPurgeJob.run()).isGreaterThanOrEqualTo(1);
+
+        Assertions.assertThat(rowCount("book", deleted.getBookId())).isZero();
+        Assertions.assertThat(rowCount("book_category", deleted.getBookId())).isZero();
+        Assertions.assertThat(rowCount("book", alive.getBookId())).isEqualTo(1);
+        Assertions.assertThat(rowCount("book_category", alive.getBookId())).isEqualTo(2);
+
+        Assertions.assertThat(bookPurgeJob.run()).isZero();
+    }
+
+    @Test
+    @DisplayName("삭제 표시된 서적 정리 : batch 크기로 나눠 지운다")
+    public void run_batch(){
+
+        List<Book> bookList = List.of(saveBook("흑백요리사"), saveBook("흑백요리사2"), saveBook("흑백요리사3"));
+        entityManager.flush();
+
+        bookList.forEach(book -> bookRepository.markDeleted(book.getBookId()));
+        entityManager.clear();
+
+        ReflectionTestUtils.setField(bookPurgeJob, "batchSize", 1);
+        ReflectionTestUtils.setField(bookPurgeJob, "maxBatchCount", 2);
+
+        //한번 실행에 최대 batch-size * max-batch-count 건
+        Assertions.assertThat(bookPurgeJob.run()).isEqualTo(2);
+
+        ReflectionTestUtils.setField(bookPurgeJob, "maxBatchCount", 100);
+        Assertions.assertThat(bookPurgeJob.run()).isGreaterThanOrEqualTo(1);
+        bookList.forEach(book -> Assertions.assertThat(rowCount("book", book.getBookId())).isZero());
+    }
+}
@@ -0,0 +1,133 @@
+package com.cjg.book.job;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.domain.Book;
+import com.cjg.book.domain.BookCategory;
+import com.cjg.book.domain.BookSortKey;
+import com.cjg.book.domain.Category;
+import com.cjg.book.event.BookChangedEvent;
+import com.cjg.book.repository.BookCategoryRepository;
+import com.cjg.book.repository.BookRepository;
+import com.cjg.book.repository.TestConfig;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.List;
+
+@DataJpaTest
+@Import({TestConfig.class, BookRepairJob.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource("classpath:application.properties")
+@RecordApplicationEvents
+public class BookRepairJobTest {
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private BookRepairJob bookRepairJob;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookCategoryRepository bookCategoryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("카테고리 비트 보정 : book_category 기준으로 다시 계산")
+    public void repairCategoryMask(){
+
+        Book book = bookRepository.save(Book.builder()
+                .author("최종규")
+                .name("흑백요리사")
+                .status(StatusCode.good.name())
+                .build());
+
+        for(CategoryCode code : List.of(CategoryCode.cook, CategoryCode.cook_general)){
+            bookCategoryRepository.save(BookCategory.builder()
+                    .book(book)
+                    .category(Category.builder().categoryId(code.getCode()).name(code.name()).build())
+                    .build());
+        }
+        entityManager.flush();
+
+        List<Long> repairedIdList = bookRepairJob.repairCategoryMask();
+        entityManager.clear();
+
+        Assertions.assertThat(repairedIdList).contains(book.getBookId());
+        Assertions.assertThat(bookRepository.findById(book.getBookId()).orElseThrow().getCategoryMask())
+                .isEqualTo(CategoryCode.toMask(List.of(CategoryCode.cook, CategoryCode.cook_general)));
+
+        //이미 맞는 값은 다시 고치지 않는다.
+        Assertions.assertThat(bookRepairJob.repairCategoryMask()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("정렬 키 백필 : 비어 있는 서적만 채운다")
+    public void backfillSortKey(){
+
+        Book book = bookRepository.save(Book.builder()
+                .author("최종규")
+                .name("흑백요리사")
+                .status(StatusCode.good.name())
+                .build());
+        entityManager.flush();
+
+        //컬럼 추가 전에 저장된 서적
+        jdbcTemplate.update("update book set name_sort_key = null, author_sort_key = null where book_id = ?", book.getBookId());
+
+        Assertions.assertThat(bookRepairJob.backfillSortKey()).contains(book.getBookId());
+        entityManager.clear();
+
+        Book result = bookRepository.findById(book.getBookId()).orElseThrow();
+        Assertions.assertThat(result.getNameSortKey()).isEqualTo(BookSortKey.of("흑백요리사"));
+        Assertions.assertThat(result.getAuthorSortKey()).isEqualTo(BookSortKey.of("최종규"));
+
+        Assertions.assertThat(bookRepairJob.backfillSortKey()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("정기 보정 : 고친 서적의 변경 이벤트를 발행한다")
+    public void run(){
+
+        Book book = bookRepository.save(Book.builder()
+                .author("최종규")
+                .name("흑백요리사")
+                .status(StatusCode.good.name())
+                .build());
+
+        bookCategoryRepository.save(BookCategory.builder()
+                .book(book)
+                .category(Category.builder().categoryId(CategoryCode.cook.getCode()).name(CategoryCode.cook.name()).build())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        bookRepairJob.run();
+
+        Assertions.assertThat(applicationEvents.stream(BookChangedEvent.class))
+                .filteredOn(event -> event.getBookId() == book.getBookId())
+                .singleElement()
+                .satisfies(event -> {
+                    Assertions.assertThat(event.getType()).isEqualTo(BookChangedEvent.Type.MODIFY);
+                    Assertions.assertThat(event.getDocument().getCategoryMask()).isEqualTo(CategoryCode.toMask(List.of(CategoryCode.cook)));
+                });
+    }
+}
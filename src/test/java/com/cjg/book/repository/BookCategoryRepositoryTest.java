@@ -7,9 +7,12 @@ import com.cjg.book.domain.Book;
 import com.cjg.book.domain.BookCategory;
 import com.cjg.book.domain.Category;
 import com.cjg.book.exception.CustomException;
+import com.cjg.book.sql.SqlStatementCountExtension;
+import jakarta.persistence.EntityManager;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -24,6 +27,9 @@ import java.util.List;
 @TestPropertySource("classpath:application.properties")
 public class BookCategoryRepositoryTest {
 
+    @RegisterExtension
+    SqlStatementCountExtension sqlStatementCount = new SqlStatementCountExtension();
+
     @Autowired
     BookRepository bookRepository;
 
@@ -33,6 +39,9 @@ public class BookCategoryRepositoryTest {
     @Autowired
     BookCategoryRepository bookCategoryRepository;
 
+    @Autowired
+    EntityManager entityManager;
+
     @Test
     @DisplayName("BookCategory 저장")
     public void save(){
@@ -46,6 +55,29 @@ public class BookCategoryRepositoryTest {
         Assertions.assertThat(result.getBook()).isEqualTo(book);
     }
 
+    @Test
+    @DisplayName("BookCategory 일괄 저장 : 카테고리 수와 상관없이 book_category INSERT는 배치 한번")
+    public void saveAll_batch(){
+        assertSavedInOneBatch(List.of(CategoryCode.cook, CategoryCode.cook_general));
+        assertSavedInOneBatch(List.of(CategoryCode.values()));
+    }
+
+    private void assertSavedInOneBatch(List<CategoryCode> categoryCodeList){
+        List<Category> categoryList = categoryCodeList.stream().map(e -> categoryRepository.getReferenceById(e.getCode())).toList();
+
+        entityManager.flush();
+        sqlStatementCount.reset();
+
+        Book book = bookRepository.save(Book.builder().author("최종규").name("흑백요리사").status(StatusCode.good.name()).build());
+        bookCategoryRepository.saveAll(categoryList.stream().map(e -> BookCategory.builder().book(book).category(e).build()).toList());
+        entityManager.flush();
+
+        //행마다 execute하면 실행 수가 카테고리 수만큼 늘어난다.
+        Assertions.assertThat(sqlStatementCount.getStatementCount("insert into book_category")).isEqualTo(1);
+        //book_category 행이 모두 executeBatch로 나갔다.(book INSERT도 배치로 나가면 1행 더 많다)
+        Assertions.assertThat(sqlStatementCount.getBatchedRowCount()).isGreaterThanOrEqualTo(categoryCodeList.size());
+    }
+
     @Test
     @DisplayName("BookCategory 조회")
     public void findAllByBookBookId(){
@@ -63,6 +95,26 @@ public class BookCategoryRepositoryTest {
         Assertions.assertThat(result.get(1)).isEqualTo(result2);
     }
 
+    @Test
+    @DisplayName("BookCategory 카테고리ID 조회, 일부 삭제")
+    public void deleteAllByBookIdAndCategoryIdIn(){
+
+        Book book = bookRepository.save(Book.builder().author("최종규").name("흑백요리사").status(StatusCode.good.name()).build());
+        Category category1 = categoryRepository.findById(CategoryCode.cook.getCode()).orElseThrow(()->new CustomException(ResultCode.CATEGORY_SEARCH_NOT_FOUND));
+        Category category2 = categoryRepository.findById(CategoryCode.cook_general.getCode()).orElseThrow(()->new CustomException(ResultCode.CATEGORY_SEARCH_NOT_FOUND));
+
+        bookCategoryRepository.save(BookCategory.builder().book(book).category(category1).build());
+        bookCategoryRepository.save(BookCategory.builder().book(book).category(category2).build());
+
+        Assertions.assertThat(bookCategoryRepository.findCategoryIdListByBookId(book.getBookId()))
+                .containsExactlyInAnyOrder(category1.getCategoryId(), category2.getCategoryId());
+
+        int count = bookCategoryRepository.deleteAllByBookIdAndCategoryIdIn(book.getBookId(), List.of(category2.getCategoryId()));
+
+        Assertions.assertThat(count).isEqualTo(1);
+        Assertions.assertThat(bookCategoryRepository.findCategoryIdListByBookId(book.getBookId())).containsExactly(category1.getCategoryId());
+    }
+
     @Test
     @DisplayName("BookCategory 삭제")
     public void deleteAllByBookBookId(){
@@ -0,0 +1,322 @@
+package com.cjg.book.repository;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.SortCode;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.domain.Book;
+import com.cjg.book.domain.BookCategory;
+import com.cjg.book.domain.Category;
+import com.cjg.book.dto.request.BookListCursor;
+import com.cjg.book.dto.request.BookListRequestDto;
+import com.cjg.book.index.BookIndexUpdater;
+import com.cjg.book.index.BookTextIndex;
+import com.cjg.book.job.BookPurgeJob;
+import com.cjg.book.sql.QueryPlanInspector;
+import com.cjg.book.sql.SqlCaptureListener;
+import jakarta.persistence.EntityManager;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+쿼리 실행 계획 회귀 테스트 : ./gradlew queryPlanTest
+로컬 DB에 시드 서적을 넣고, 목록 조회가 만들 수 있는 모든 조건 조합(카테고리, 상태, 지은이, 제목)과 분기(page, deferred, count, ranked, cursor),
+정렬(카테고리, 상태 조건 포함), 기간 조건, BookCategoryRepository 쿼리, 삭제 표시와 정리(BookPurgeJob) 쿼리를 실행하여 EXPLAIN, ANALYZE 결과에 전체 읽기, 인덱스로 거르지 못한 조건, filesort, 임시 테이블이 없는지 확인한다.
+지은이/제목은 운영과 같이 메모리 색인 후보(bookId IN)로 조회한다. 색인 준비 전의 LIKE 검색은 전체 읽기가 정상이므로 대상이 아니다.
+시드 데이터는 끝나면 지운다.
+*/
+@Tag("queryPlan")
+@DataJpaTest
+@Import({TestConfig.class, SqlCaptureListener.class, BookPurgeJob.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource("classpath:application.properties")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class BookQueryPlanTest {
+
+    private static final String SEED_AUTHOR = "plan-seed-author-";
+    private static final int SEED_AUTHOR_SIZE = 500;
+
+    //카테고리처럼 작은 기준 테이블만 전체 읽기를 허용한다.
+    private static final long MAX_SCAN_ROWS = 100;
+
+    //시드 중 지은이 11명(7, 70~79)의 서적 약 230권, 제목 약 111권(42, 420~429, 4200~4299)
+    private static final String AUTHOR = SEED_AUTHOR + "7";
+    private static final String NAME = "plan book 42";
+
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookCategoryRepository bookCategoryRepository;
+
+    @Autowired
+    private BookTextIndex bookTextIndex;
+
+    @Autowired
+    private BookPurgeJob bookPurgeJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Value("${book.list.deferred-join-offset:1000}")
+    private long deferredJoinOffset;
+
+    /*
+    정렬, 읽은 뒤 버리는 행은 메모리 색인 후보 최대 건수까지만 허용한다.(후보 bookId IN으로 읽은 행만 정렬하고, 후보 중 카테고리, 상태 조건에 맞지 않는 서적을 버린다)
+    시드는 카테고리마다 이 값보다 많이 넣어야 카테고리 조건 + 정렬이 일치하는 행 전체를 정렬할 때 드러난다.
+    */
+    @Value("${book.search.max-candidate-size:1000}")
+    private long maxCandidateSize;
+
+    private QueryPlanInspector queryPlanInspector;
+
+    //카테고리 조건의 깊은 offset 페이지는 정렬 인덱스 순서로 읽으면서 건너뛰는 행 / 카테고리 비율만큼 다른 카테고리 서적을 버린다.(Book 인덱스 설명)
+    private QueryPlanInspector categoryOffsetInspector;
+    private List<Long> seedBookIdList;
+
+    @BeforeAll
+    void seed(){
+        CategoryCode[] categoryCodes = CategoryCode.values();
+        StatusCode[] statusCodes = StatusCode.values();
+        long seedSize = categoryCodes.length * (maxCandidateSize * 3 / 2);
+
+        queryPlanInspector = new QueryPlanInspector(jdbcTemplate, MAX_SCAN_ROWS, maxCandidateSize, maxCandidateSize);
+        categoryOffsetInspector = new QueryPlanInspector(jdbcTemplate, MAX_SCAN_ROWS, maxCandidateSize, (deferredJoinOffset + PAGE_SIZE) * categoryCodes.length);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for(int i=0; i<seedSize; i++){
+                CategoryCode categoryCode = categoryCodes[i % categoryCodes.length];
+                Book book = bookRepository.save(Book.builder()
+                        .author(SEED_AUTHOR + (i % SEED_AUTHOR_SIZE))
+                        .name("plan book " + i)
+                        .status(statusCodes[i % statusCodes.length].name())
+                        .categoryMask(categoryCode.getBit())
+                        .build());
+
+                bookCategoryRepository.save(BookCategory.builder()
+                        .book(book)
+                        .category(entityManager.getReference(Category.class, categoryCode.getCode()))
+                        .build());
+
+                if(i % 1000 == 999){
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+
+        //등록일, 수정일을 1년, 30일 범위로 나눈다.
+        jdbcTemplate.update("update book set reg_date = date_sub(reg_date, interval book_id % 365 day)"
+                + ", mod_date = case when book_id % 2 = 0 then date_add(reg_date, interval book_id % 30 day) end"
+                + " where author like ?", SEED_AUTHOR + "%");
+
+        //통계를 갱신해야 EXPLAIN 행 수가 시드 데이터를 반영한다.
+        jdbcTemplate.execute("analyze table book, book_category");
+
+        new BookIndexUpdater(List.of(bookTextIndex), bookRepository).rebuild();
+
+        seedBookIdList = jdbcTemplate.queryForList("select book_id from book where author like ? order by book_id limit 10", Long.class, SEED_AUTHOR + "%");
+    }
+
+    @AfterAll
+    void cleanUp(){
+        bookTextIndex.clear();
+        jdbcTemplate.update("delete from book_category where book_id in (select book_id from book where author like ?)", SEED_AUTHOR + "%");
+        jdbcTemplate.update("delete from book where author like ?", SEED_AUTHOR + "%");
+    }
+
+    //카테고리, 상태, 지은이, 제목 조건 유무의 모든 조합
+    static Stream<Arguments> conditionShapes(){
+        List<Arguments> list = new ArrayList<>();
+        for(List<CategoryCode> categoryCodeList : Arrays.asList(null, List.of(CategoryCode.cook))){
+            for(StatusCode statusCode : Arrays.asList(null, StatusCode.good)){
+                for(String author : Arrays.asList(null, AUTHOR)){
+                    for(String name : Arrays.asList(null, NAME)){
+                        list.add(Arguments.of(categoryCodeList, statusCode, author, name));
+                    }
+                }
+            }
+        }
+        return list.stream();
+    }
+
+    static Stream<Arguments> textConditionShapes(){
+        return conditionShapes().filter(e -> e.get()[2] != null || e.get()[3] != null);
+    }
+
+    //정렬 x 카테고리, 상태 조건 유무
+    static Stream<Arguments> sortShapes(){
+        return Arrays.stream(SortCode.values())
+                .flatMap(sortCode -> Stream.of(
+                        Arguments.of(sortCode, null, null)
+                        ,Arguments.of(sortCode, null, StatusCode.good)
+                        ,Arguments.of(sortCode, List.of(CategoryCode.cook), null)
+                        ,Arguments.of(sortCode, List.of(CategoryCode.cook), StatusCode.good)));
+    }
+
+    private BookListRequestDto.BookListRequestDtoBuilder request(List<CategoryCode> categoryCodeList, StatusCode statusCode, String author, String name){
+        return BookListRequestDto.builder()
+                .categoryCodeList(categoryCodeList)
+                .statusCode(statusCode)
+                .author(author)
+                .name(name)
+                .pageNumber(1)
+                .pageSize(PAGE_SIZE);
+    }
+
+    //목록, count 쿼리는 트랜잭션 밖에서 호출하면 ParallelQueryExecutor로 동시에 실행되므로 count 쿼리도 항상 실행된다.
+    private void assertListIndexed(BookListRequestDto dto, long offset){
+        QueryPlanInspector inspector = offset >= deferredJoinOffset && dto.getCategoryCodeList() != null ? categoryOffsetInspector : queryPlanInspector;
+        inspector.assertIndexed(SqlCaptureListener.capture(
+                () -> bookRepository.list(PageRequest.of((int) (offset / PAGE_SIZE), PAGE_SIZE), dto)));
+    }
+
+    @ParameterizedTest(name = "category={0}, status={1}, author={2}, name={3}")
+    @MethodSource("conditionShapes")
+    @DisplayName("실행 계획 : 목록 첫 페이지 + count")
+    public void list_page(List<CategoryCode> categoryCodeList, StatusCode statusCode, String author, String name){
+        assertListIndexed(request(categoryCodeList, statusCode, author, name).build(), 0);
+    }
+
+    @ParameterizedTest(name = "category={0}, status={1}, author={2}, name={3}")
+    @MethodSource("conditionShapes")
+    @DisplayName("실행 계획 : 목록 깊은 offset 페이지(deferred join) + count")
+    public void list_deferred(List<CategoryCode> categoryCodeList, StatusCode statusCode, String author, String name){
+        assertListIndexed(request(categoryCodeList, statusCode, author, name).build(), deferredJoinOffset);
+    }
+
+    @ParameterizedTest(name = "category={0}, status={1}, author={2}, name={3}")
+    @MethodSource("textConditionShapes")
+    @DisplayName("실행 계획 : 관련도순 목록")
+    public void list_ranked(List<CategoryCode> categoryCodeList, StatusCode statusCode, String author, String name){
+        assertListIndexed(request(categoryCodeList, statusCode, author, name).relevance(true).build(), 0);
+    }
+
+    @ParameterizedTest(name = "category={0}, status={1}, author={2}, name={3}")
+    @MethodSource("conditionShapes")
+    @DisplayName("실행 계획 : 커서 페이징 첫 페이지, 다음 페이지")
+    public void listByCursor(List<CategoryCode> categoryCodeList, StatusCode statusCode, String author, String name){
+        BookListRequestDto dto = request(categoryCodeList, statusCode, author, name).cursor("").build();
+        BookListCursor cursor = new BookListCursor(LocalDateTime.now().minusDays(100), Long.MAX_VALUE);
+
+        queryPlanInspector.assertIndexed(SqlCaptureListener.capture(() -> {
+            bookRepository.listByCursor(dto, null, PAGE_SIZE + 1);
+            bookRepository.listByCursor(dto, cursor, PAGE_SIZE + 1);
+        }));
+    }
+
+    @ParameterizedTest(name = "sort={0}, category={1}, status={2}")
+    @MethodSource("sortShapes")
+    @DisplayName("실행 계획 : 정렬별 첫 페이지, 깊은 offset 페이지")
+    public void list_sort(SortCode sortCode, List<CategoryCode> categoryCodeList, StatusCode statusCode){
+        BookListRequestDto dto = request(categoryCodeList, statusCode, null, null).sort(sortCode).build();
+        assertListIndexed(dto, 0);
+        assertListIndexed(dto, deferredJoinOffset);
+    }
+
+    @Test
+    @DisplayName("실행 계획 : 등록일, 수정일 범위 + 같은 컬럼 정렬")
+    public void list_dateRange(){
+        LocalDate today = LocalDate.now();
+
+        assertListIndexed(request(null, null, null, null).regDateFrom(today.minusDays(7)).regDateTo(today).sort(SortCode.regDate_desc).build(), 0);
+        assertListIndexed(request(null, StatusCode.good, null, null).regDateFrom(today.minusDays(7)).regDateTo(today).sort(SortCode.regDate_asc).build(), 0);
+        assertListIndexed(request(null, null, null, null).modDateFrom(today.minusDays(3)).modDateTo(today).sort(SortCode.modDate_desc).build(), 0);
+        assertListIndexed(request(null, StatusCode.good, null, null).modDateFrom(today.minusDays(3)).modDateTo(today).sort(SortCode.modDate_asc).build(), 0);
+    }
+
+    @Test
+    @DisplayName("실행 계획 : 서적 카테고리 조회")
+    public void bookCategory_find(){
+        long bookId = seedBookIdList.getFirst();
+
+        queryPlanInspector.assertIndexed(SqlCaptureListener.capture(() -> {
+            bookCategoryRepository.findAllByBookBookId(bookId);
+            bookCategoryRepository.findCategoryIdListByBookId(bookId);
+        }));
+    }
+
+    @Test
+    @DisplayName("실행 계획 : 서적 카테고리 삭제(롤백)")
+    public void bookCategory_delete(){
+        long bookId = seedBookIdList.getFirst();
+        long otherBookId = seedBookIdList.getLast();
+
+        List<String> sqlList = SqlCaptureListener.capture(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookCategoryRepository.deleteAllByBookBookId(bookId);
+            bookCategoryRepository.deleteAllByBookIdAndCategoryIdIn(otherBookId, List.of(CategoryCode.cook.getCode(), CategoryCode.literature.getCode()));
+            entityManager.flush();
+            status.setRollbackOnly();
+        }));
+
+        queryPlanInspector.assertIndexed(sqlList);
+    }
+
+    @Test
+    @DisplayName("실행 계획 : 서적 삭제 표시, 삭제 표시된 서적 정리(롤백)")
+    public void book_markDeletedAndPurge(){
+        List<String> sqlList = SqlCaptureListener.capture(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookRepository.markDeleted(seedBookIdList.getFirst());
+            bookPurgeJob.run();
+            status.setRollbackOnly();
+        }));
+
+        queryPlanInspector.assertIndexed(sqlList);
+    }
+
+    //검사기가 DELETED = 0 인덱스 범위로 읽은 뒤 카테고리 조건으로 거르는 쿼리를 찾아내는지 확인한다.
+    @Test
+    @DisplayName("실행 계획 : bitand 카테고리 조건 count는 실패로 보고한다")
+    public void inspector_reportsBitandCategoryCount(){
+        String sql = "select count(*) from book where deleted = 0 and (category_mask & " + CategoryCode.cook.getBit() + ") <> 0";
+
+        Assertions.assertThat(queryPlanInspector.problems(sql)).isNotEmpty();
+    }
+
+    //카테고리 IN 범위로 읽으면 일치하는 행 전체를 정렬하므로, 시드가 카테고리마다 정렬 허용 건수보다 많아 실패로 보고되어야 한다.
+    @Test
+    @DisplayName("실행 계획 : 카테고리 인덱스로 읽은 뒤 정렬하면 실패로 보고한다")
+    public void inspector_reportsCategoryFilesort(){
+        String maskList = CategoryCode.matchingMaskList(List.of(CategoryCode.cook)).stream().map(String::valueOf).collect(Collectors.joining(","));
+        String sql = "select * from book force index (idx_book_deleted_category_mask_status)"
+                + " where deleted = 0 and category_mask in (" + maskList + ") order by reg_date desc, book_id desc limit " + PAGE_SIZE;
+
+        Assertions.assertThat(queryPlanInspector.problems(sql)).anyMatch(problem -> problem.contains("filesort"));
+    }
+}
@@ -2,29 +2,42 @@ package com.cjg.book.repository;
 
 import com.cjg.book.code.CategoryCode;
 import com.cjg.book.code.ResultCode;
+import com.cjg.book.code.SortCode;
 import com.cjg.book.code.StatusCode;
 import com.cjg.book.domain.Book;
 import com.cjg.book.domain.BookCategory;
 import com.cjg.book.domain.Category;
+import com.cjg.book.dto.request.BookListCursor;
 import com.cjg.book.dto.request.BookListRequestDto;
 import com.cjg.book.exception.CustomException;
+import com.cjg.book.sql.SqlStatementCountExtension;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @DataJpaTest
 @Import(TestConfig.class)
@@ -32,9 +45,27 @@ import java.util.Optional;
 @TestPropertySource("classpath:application.properties")
 public class BookRepositoryTest {
 
+    @RegisterExtension
+    SqlStatementCountExtension sqlStatementCount = new SqlStatementCountExtension();
+
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CustomBookRepositoryImpl customBookRepositoryImpl;
+
+    //테스트 컨텍스트의 MeterRegistry는 테스트끼리 공유하므로 실행 전후 차이로 확인한다.
+    private long listTimerCount(String branch){
+        Timer timer = meterRegistry.find("book.repository.list").tag("branch", branch).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
     @Autowired
     private BookCategoryRepository bookCategoryRepository;
 
@@ -72,6 +103,20 @@ public class BookRepositoryTest {
         Assertions.assertThat(result.getStatus()).isEqualTo(temp.getStatus());
     }
 
+    @Test
+    @DisplayName("서적 변경 시각 조회")
+    public void findVersionById(){
+        Book book = bookRepository.save(Book.builder()
+                .author("최종규")
+                .name("흑백요리사")
+                .status(StatusCode.good.name())
+                .build());
+        bookRepository.flush();
+
+        Assertions.assertThat(bookRepository.findVersionById(book.getBookId())).isPresent();
+        Assertions.assertThat(bookRepository.findVersionById(-1L)).isEmpty();
+    }
+
     @Test
     @DisplayName("서적 리스트 : 카테고리 없을 때")
     public void list_category_empty(){
@@ -106,7 +151,7 @@ public class BookRepositoryTest {
 
         Pageable pageable = PageRequest.of(bookListRequestDto.getPageNumber()-1, bookListRequestDto.getPageSize(), Sort.Direction.DESC, "regDate");
 
-        Page<Book> result = bookRepository.list(pageable, bookListRequestDto);
+        Page<BookRow> result = bookRepository.list(pageable, bookListRequestDto);
 
         Assertions.assertThat(result.getContent().size()).isEqualTo(10);
     }
@@ -121,6 +166,7 @@ public class BookRepositoryTest {
                     .author("최종규")
                     .name("흑백요리사")
                     .status(StatusCode.good.name())
+                    .categoryMask(CategoryCode.toMask(List.of(CategoryCode.cook, CategoryCode.cook_general)))
                     .build();
 
             bookRepository.save(book);
@@ -151,11 +197,305 @@ public class BookRepositoryTest {
 
         Pageable pageable = PageRequest.of(bookListRequestDto.getPageNumber()-1, bookListRequestDto.getPageSize(), Sort.Direction.DESC, "regDate");
 
-        Page<Book> result = bookRepository.list(pageable, bookListRequestDto);
+        Page<BookRow> result = bookRepository.list(pageable, bookListRequestDto);
 
         Assertions.assertThat(result.getContent().size()).isEqualTo(10);
     }
 
+    @Test
+    @DisplayName("서적 리스트 : 카테고리 비트 조건")
+    public void list_categoryMask(){
+
+        bookRepository.save(Book.builder()
+                .author("비트조건")
+                .name("요리책")
+                .status(StatusCode.good.name())
+                .categoryMask(CategoryCode.toMask(List.of(CategoryCode.cook)))
+                .build());
+
+        bookRepository.save(Book.builder()
+                .author("비트조건")
+                .name("소설")
+                .status(StatusCode.good.name())
+                .categoryMask(CategoryCode.toMask(List.of(CategoryCode.literature)))
+                .build());
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .pageNumber(1)
+                .author("비트조건")
+                .categoryCodeList(List.of(CategoryCode.cook, CategoryCode.it))
+                .pageSize(10).build();
+
+        Page<BookRow> result = bookRepository.list(PageRequest.of(0, 10), bookListRequestDto);
+
+        Assertions.assertThat(result.getTotalElements()).isEqualTo(1);
+        Assertions.assertThat(result.getContent().getFirst().name()).isEqualTo("요리책");
+    }
+
+    @Test
+    @DisplayName("서적 리스트 : 전체 건수 대체, 단계별 실행 시간 기록")
+    public void list_totalCount_metrics(){
+
+        for(int i=0; i<2; i++){
+            bookRepository.save(Book.builder()
+                    .author("건수대체")
+                    .name("흑백요리사")
+                    .status(StatusCode.good.name())
+                    .build());
+        }
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .pageNumber(1)
+                .author("건수대체")
+                .pageSize(1).build();
+
+        long pageCount = listTimerCount("page");
+        long countCount = listTimerCount("count");
+
+        Page<BookRow> result = bookRepository.list(PageRequest.of(0, 1), bookListRequestDto, exactCount -> exactCount.getAsLong() + 100);
+
+        Assertions.assertThat(result.getTotalElements()).isEqualTo(102);
+        Assertions.assertThat(listTimerCount("page")).isEqualTo(pageCount + 1);
+        Assertions.assertThat(listTimerCount("count")).isEqualTo(countCount + 1);
+    }
+
+    @Test
+    @DisplayName("서적 리스트 : 카테고리 이름까지 목록 쿼리 + count 쿼리 2건")
+    public void list_statementCount(){
+
+        for(int i=0; i<10; i++){
+            Book book = bookRepository.save(Book.builder()
+                    .author("쿼리수")
+                    .name("흑백요리사")
+                    .status(StatusCode.good.name())
+                    .categoryMask(CategoryCode.cook.getBit())
+                    .build());
+
+            bookCategoryRepository.save(BookCategory.builder()
+                    .book(book)
+                    .category(Category.builder().categoryId(CategoryCode.cook.getCode()).name(CategoryCode.cook.name()).build()).build());
+        }
+        bookRepository.flush();
+        sqlStatementCount.reset();
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .pageNumber(1)
+                .author("쿼리수")
+                .pageSize(10).build();
+
+        Page<BookRow> result = bookRepository.list(PageRequest.of(0, 10), bookListRequestDto);
+
+        Assertions.assertThat(result.getContent()).allSatisfy(e -> Assertions.assertThat(e.categoryCodeList()).containsExactly(CategoryCode.cook));
+        sqlStatementCount.assertStatementCountAtMost(2);
+        sqlStatementCount.assertNoNPlusOne();
+    }
+
+    @Test
+    @DisplayName("서적 리스트 : deferred join : offset 페이징과 같은 결과")
+    public void list_deferredJoin(){
+
+        for(int i=0; i<5; i++){
+            bookRepository.save(Book.builder()
+                    .author("지연조인")
+                    .name("흑백요리사" + i)
+                    .status(StatusCode.good.name())
+                    .build());
+        }
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .pageNumber(2)
+                .author("지연조인")
+                .pageSize(2).build();
+
+        Object target = AopTestUtils.getUltimateTargetObject(customBookRepositoryImpl);
+        Object deferredJoinOffset = ReflectionTestUtils.getField(target, "deferredJoinOffset");
+
+        try{
+            List<BookRow> offset = bookRepository.list(PageRequest.of(1, 2), bookListRequestDto).getContent();
+
+            long deferredCount = listTimerCount("deferred");
+            ReflectionTestUtils.setField(target, "deferredJoinOffset", 0L);
+            List<BookRow> deferred = bookRepository.list(PageRequest.of(1, 2), bookListRequestDto).getContent();
+
+            Assertions.assertThat(deferred).hasSize(2);
+            Assertions.assertThat(deferred).extracting(BookRow::bookId).containsExactlyElementsOf(offset.stream().map(BookRow::bookId).toList());
+            Assertions.assertThat(listTimerCount("deferred")).isEqualTo(deferredCount + 1);
+        }finally{
+            ReflectionTestUtils.setField(target, "deferredJoinOffset", deferredJoinOffset);
+        }
+    }
+
+    @Test
+    @DisplayName("서적 리스트 : 제목 정렬은 한국어 정렬 키 순서(대소문자 구분 없음)")
+    public void list_sort_name(){
+
+        for(String name : List.of("다람쥐", "cherry", "가나다", "Banana", "나비", "apple")){
+            bookRepository.save(Book.builder()
+                    .author("정렬테스트")
+                    .name(name)
+                    .status(StatusCode.good.name())
+                    .build());
+        }
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .author("정렬테스트")
+                .sort(SortCode.name_asc)
+                .pageNumber(1)
+                .pageSize(10).build();
+
+        Page<BookRow> result = bookRepository.list(PageRequest.of(0, 10), bookListRequestDto);
+
+        Assertions.assertThat(result.getContent()).extracting(BookRow::name)
+                .containsExactly("apple", "Banana", "cherry", "가나다", "나비", "다람쥐");
+    }
+
+    @Test
+    @DisplayName("서적 리스트 : 등록일, 수정일 범위(양끝 포함)")
+    public void list_dateRange(){
+
+        LocalDate today = LocalDate.now();
+
+        bookRepository.save(Book.builder()
+                .author("기간테스트")
+                .name("흑백요리사")
+                .status(StatusCode.good.name())
+                .build());
+
+        bookRepository.save(Book.builder()
+                .author("기간테스트")
+                .name("흑백요리사2")
+                .status(StatusCode.good.name())
+                .modDate(today.minusDays(3).atTime(23, 59))
+                .build());
+
+        BookListRequestDto registeredToday = BookListRequestDto.builder().author("기간테스트").regDateFrom(today).regDateTo(today).pageNumber(1).pageSize(10).build();
+        BookListRequestDto registeredBefore = BookListRequestDto.builder().author("기간테스트").regDateTo(today.minusDays(1)).pageNumber(1).pageSize(10).build();
+        BookListRequestDto modified = BookListRequestDto.builder().author("기간테스트").modDateFrom(today.minusDays(3)).modDateTo(today.minusDays(3)).pageNumber(1).pageSize(10).build();
+
+        Assertions.assertThat(bookRepository.list(PageRequest.of(0, 10), registeredToday).getTotalElements()).isEqualTo(2);
+        Assertions.assertThat(bookRepository.list(PageRequest.of(0, 10), registeredBefore).getTotalElements()).isZero();
+        Assertions.assertThat(bookRepository.list(PageRequest.of(0, 10), modified).getContent())
+                .extracting(BookRow::name).containsExactly("흑백요리사2");
+    }
+
+    @Test
+    @DisplayName("건수 집계 : 카테고리, 상태 조건 없이 categoryMask, 상태별로 센다")
+    public void facetRowList(){
+
+        LocalDate today = LocalDate.now();
+        long cookMask = CategoryCode.toMask(List.of(CategoryCode.cook));
+
+        for(StatusCode statusCode : List.of(StatusCode.good, StatusCode.good, StatusCode.damage)){
+            bookRepository.save(Book.builder()
+                    .author("집계테스트")
+                    .name("흑백요리사")
+                    .status(statusCode.name())
+                    .categoryMask(cookMask)
+                    .build());
+        }
+
+        BookListRequestDto dto = BookListRequestDto.builder()
+                .author("집계테스트")
+                .categoryCodeList(List.of(CategoryCode.literature))
+                .statusCode(StatusCode.lost)
+                .regDateFrom(today)
+                .build();
+
+        Assertions.assertThat(bookRepository.facetRowList(dto)).containsExactlyInAnyOrder(
+                new BookFacetRow(cookMask, StatusCode.good.name(), 2L)
+                , new BookFacetRow(cookMask, StatusCode.damage.name(), 1L));
+
+        Assertions.assertThat(bookRepository.facetRowList(BookListRequestDto.builder().author("집계테스트").regDateTo(today.minusDays(1)).build())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("서적 리스트 : bookId 순서대로 조회, 없는 서적은 제외")
+    public void listByIdList(){
+
+        List<Long> bookIdList = new ArrayList<>();
+        for(int i=0; i<3; i++){
+            bookIdList.add(bookRepository.save(Book.builder()
+                    .author("최종규")
+                    .name("흑백요리사" + i)
+                    .status(StatusCode.good.name())
+                    .build()).getBookId());
+        }
+
+        List<BookRow> result = bookRepository.listByIdList(List.of(bookIdList.get(2), -1L, bookIdList.get(0)));
+
+        Assertions.assertThat(result).extracting(BookRow::bookId).containsExactly(bookIdList.get(2), bookIdList.get(0));
+        Assertions.assertThat(result.getFirst().name()).isEqualTo("흑백요리사2");
+    }
+
+    @Test
+    @DisplayName("서적 리스트 : 커서 페이징")
+    public void listByCursor(){
+
+        for(int i=0; i<5; i++){
+            bookRepository.save(Book.builder()
+                    .author("최종규")
+                    .name("흑백요리사")
+                    .status(StatusCode.good.name())
+                    .build());
+        }
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .author("최종규")
+                .name("흑백요리사")
+                .pageSize(2)
+                .cursor("")
+                .build();
+
+        List<BookRow> first = bookRepository.listByCursor(bookListRequestDto, null, 2);
+        BookRow last = first.getLast();
+        List<BookRow> second = bookRepository.listByCursor(bookListRequestDto, new BookListCursor(last.regDate(), last.bookId()), 2);
+
+        Assertions.assertThat(first.size()).isEqualTo(2);
+        Assertions.assertThat(second.size()).isEqualTo(2);
+        Assertions.assertThat(second).doesNotContainAnyElementsOf(first);
+        Assertions.assertThat(second.getFirst().regDate()).isBeforeOrEqualTo(last.regDate());
+    }
+
+    @Test
+    @DisplayName("서적 export 조회 : 카테고리가 서적별로 연속된 행")
+    public void exportStream(){
+
+        for(int i=0; i<3; i++){
+            Book book = bookRepository.save(Book.builder()
+                    .author("익스포트")
+                    .name("흑백요리사")
+                    .status(StatusCode.good.name())
+                    .categoryMask(CategoryCode.toMask(List.of(CategoryCode.cook, CategoryCode.cook_general)))
+                    .build());
+
+            bookCategoryRepository.save(BookCategory.builder()
+                    .book(book)
+                    .category(Category.builder().categoryId(CategoryCode.cook.getCode()).name(CategoryCode.cook.name()).build()).build());
+
+            bookCategoryRepository.save(BookCategory.builder()
+                    .book(book)
+                    .category(Category.builder().categoryId(CategoryCode.cook_general.getCode()).name(CategoryCode.cook_general.name()).build()).build());
+        }
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .author("익스포트")
+                .categoryCodeList(List.of(CategoryCode.cook))
+                .build();
+
+        List<BookExportRow> result;
+        try(Stream<BookExportRow> stream = bookRepository.exportStream(bookListRequestDto, 100)){
+            result = stream.toList();
+        }
+
+        //카테고리 필터와 상관없이 서적의 전체 카테고리가 조회된다.
+        Assertions.assertThat(result.size()).isEqualTo(6);
+        for(int i=0; i<result.size(); i+=2){
+            Assertions.assertThat(result.get(i).bookId()).isEqualTo(result.get(i+1).bookId());
+            Assertions.assertThat(List.of(result.get(i).categoryName(), result.get(i+1).categoryName()))
+                    .containsExactlyInAnyOrder(CategoryCode.cook.name(), CategoryCode.cook_general.name());
+        }
+    }
+
     @Test
     @DisplayName("서적 삭제")
     public void delete(){
@@ -173,4 +513,48 @@ public class BookRepositoryTest {
         Assertions.assertThatThrownBy(optional::get).isInstanceOf(NoSuchElementException.class);
     }
 
+    @Test
+    @DisplayName("서적 삭제 표시 : 표시된 서적은 조회되지 않는다")
+    public void markDeleted(){
+
+        Book book = bookRepository.save(Book.builder()
+                .author("최종규")
+                .name("흑백요리사")
+                .status(StatusCode.good.name())
+                .build());
+        entityManager.flush();
+
+        Assertions.assertThat(bookRepository.markDeleted(book.getBookId())).isEqualTo(1);
+        entityManager.clear();
+
+        Assertions.assertThat(bookRepository.findById(book.getBookId())).isEmpty();
+        Assertions.assertThat(bookRepository.findVersionById(book.getBookId())).isEmpty();
+        Assertions.assertThat(bookRepository.listByIdList(List.of(book.getBookId()))).isEmpty();
+
+        //이미 삭제 표시된 서적은 다시 표시하지 않는다.
+        Assertions.assertThat(bookRepository.markDeleted(book.getBookId())).isZero();
+    }
+
+    @Test
+    @DisplayName("서적 삭제 표시 : 수정 중 삭제되면 flush가 삭제 표시를 되돌리지 않고 실패한다")
+    public void markDeleted_duringModify(){
+
+        Book saved = bookRepository.save(Book.builder()
+                .author("최종규")
+                .name("흑백요리사")
+                .status(StatusCode.good.name())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        //BookService.modify : 조회 후 변경하고 커밋 시 flush 한다. 그 사이 다른 요청이 삭제 표시한다.
+        Book book = bookRepository.findById(saved.getBookId()).orElseThrow();
+        Assertions.assertThat(bookRepository.markDeleted(book.getBookId())).isEqualTo(1);
+
+        book.setName("흑백요리사2");
+        book.setModDate(LocalDateTime.now());
+
+        Assertions.assertThatThrownBy(() -> bookRepository.flush()).isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
 }
@@ -1,12 +1,26 @@
 package com.cjg.book.repository;
 
+import com.cjg.book.config.jpa.IdSequenceInitializer;
+import com.cjg.book.index.BookTextIndex;
+import com.cjg.book.sql.ParallelQueryExecutor;
+import com.cjg.book.sql.SqlStatementListener;
+import com.github.gavlyukovskiy.boot.jdbc.decorator.DataSourceDecoratorAutoConfiguration;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 
+//IdSequenceInitializer : 기존 데이터가 있는 DB에서도 시퀀스 ID가 충돌하지 않도록 보정
+//DataSourceDecoratorAutoConfiguration, SqlStatementListener : p6spy로 실행 SQL을 기록(SqlStatementCountExtension)
+//ParallelQueryExecutor : CustomBookRepositoryImpl 의존성. 테스트는 트랜잭션 안에서 실행되므로 순서대로 조회한다.
 @TestConfiguration
+@Import({IdSequenceInitializer.class, SqlStatementListener.class, ParallelQueryExecutor.class})
+@ImportAutoConfiguration(DataSourceDecoratorAutoConfiguration.class)
 public class TestConfig {
 
     @PersistenceContext
@@ -17,4 +31,16 @@ public class TestConfig {
     public JPAQueryFactory jpaQueryFactory(){
         return new JPAQueryFactory(entityManager);
     }
+
+    //CustomBookRepositoryImpl 의존성. 기동 색인 작업이 없어 준비되지 않은 상태이므로 LIKE 검색으로 동작한다.
+    @Bean
+    public BookTextIndex bookTextIndex(){
+        return new BookTextIndex();
+    }
+
+    //CustomBookRepositoryImpl 의존성. @DataJpaTest는 metrics 자동 설정을 하지 않는다.
+    @Bean
+    public MeterRegistry meterRegistry(){
+        return new SimpleMeterRegistry();
+    }
 }
@@ -0,0 +1,131 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.ResultCode;
+import com.cjg.book.dto.request.BookSaveRequestDto;
+import com.cjg.book.dto.response.BookBulkResponseDto;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+public class BookBulkServiceTest {
+
+    private static final String VALID_LINE = "{\"categoryCodeList\":[\"cook\"],\"author\":\"최종규\",\"name\":\"흑백요리사\",\"statusCode\":\"good\"}";
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private BookBulkService bookBulkService;
+
+    @BeforeEach
+    public void setUp(){
+        bookBulkService = new BookBulkService(
+                bookService
+                , Jackson2ObjectMapperBuilder.json().build()
+                , Validation.buildDefaultValidatorFactory().getValidator()
+                , new TransactionTemplate(mock(PlatformTransactionManager.class))
+                , entityManager
+        );
+        ReflectionTestUtils.setField(bookBulkService, "chunkSize", 2);
+    }
+
+    @Test
+    @DisplayName("서적 일괄 저장 : 성공 : chunk 단위 저장")
+    public void save_ok_chunk() throws Exception{
+
+        String body = String.join("\n", VALID_LINE, VALID_LINE, "", VALID_LINE);
+
+        BookBulkResponseDto result = bookBulkService.save(toInputStream(body));
+
+        Assertions.assertThat(result.getTotalCount()).isEqualTo(3);
+        Assertions.assertThat(result.getSuccessCount()).isEqualTo(3);
+        Assertions.assertThat(result.getFailCount()).isZero();
+        then(bookService).should(times(1)).saveAll(argThat(list -> list.size() == 2));
+        then(bookService).should(times(1)).saveAll(argThat(list -> list.size() == 1));
+    }
+
+    @Test
+    @DisplayName("서적 일괄 저장 : 성공 : 검증 실패한 줄만 제외")
+    public void save_ok_invalidLine() throws Exception{
+
+        String body = String.join("\n"
+                , VALID_LINE
+                , "{\"categoryCodeList\":[\"cook\"],\"author\":\"\",\"name\":\"흑백요리사\",\"statusCode\":\"good\"}"
+                , "{\"categoryCodeList\":[\"cook\",\"cook\"],\"author\":\"최종규\",\"name\":\"흑백요리사\",\"statusCode\":\"good\"}"
+                , "{\"categoryCodeList\":[\"unknown\"],\"author\":\"최종규\",\"name\":\"흑백요리사\",\"statusCode\":\"good\"}"
+                , "not json");
+
+        BookBulkResponseDto result = bookBulkService.save(toInputStream(body));
+
+        Assertions.assertThat(result.getTotalCount()).isEqualTo(5);
+        Assertions.assertThat(result.getSuccessCount()).isEqualTo(1);
+        Assertions.assertThat(result.getFailCount()).isEqualTo(4);
+        Assertions.assertThat(result.getFailList()).extracting("lineNumber").containsExactly(2L, 3L, 4L, 5L);
+        Assertions.assertThat(result.getFailList()).extracting("message").containsExactly(
+                "지은이를 입력하세요"
+                , ResultCode.BOOK_INVALID_CATEGORY.getMessage()
+                , ResultCode.BOOK_INVALID_PARAM.getMessage()
+                , ResultCode.BOOK_INVALID_PARAM.getMessage());
+    }
+
+    @Test
+    @DisplayName("서적 일괄 저장 : 성공 : chunk 저장 실패시 한 줄씩 재시도")
+    public void save_ok_chunkRetry() throws Exception{
+
+        String failLine = "{\"categoryCodeList\":[\"cook\"],\"author\":\"최종규\",\"name\":\"실패\",\"statusCode\":\"good\"}";
+
+        given(bookService.saveAll(anyList())).willAnswer(invocation -> {
+            List<BookSaveRequestDto> list = invocation.getArgument(0);
+            if(list.stream().anyMatch(e -> e.getName().equals("실패"))) throw new IllegalStateException("constraint");
+            return List.of();
+        });
+
+        BookBulkResponseDto result = bookBulkService.save(toInputStream(String.join("\n", VALID_LINE, failLine)));
+
+        Assertions.assertThat(result.getSuccessCount()).isEqualTo(1);
+        Assertions.assertThat(result.getFailCount()).isEqualTo(1);
+        Assertions.assertThat(result.getFailList().getFirst().getLineNumber()).isEqualTo(2L);
+        Assertions.assertThat(result.getFailList().getFirst().getMessage()).isEqualTo(ResultCode.BOOK_SAVE_FAIL.getMessage());
+    }
+
+    @Test
+    @DisplayName("서적 일괄 저장 : 성공 : 실패 사유는 설정한 건수까지만")
+    public void save_ok_maxFailReport() throws Exception{
+
+        ReflectionTestUtils.setField(bookBulkService, "maxFailReport", 1);
+
+        BookBulkResponseDto result = bookBulkService.save(toInputStream(String.join("\n", "x", "y", "z")));
+
+        Assertions.assertThat(result.getFailCount()).isEqualTo(3);
+        Assertions.assertThat(result.getFailList()).hasSize(1);
+    }
+
+    private InputStream toInputStream(String body){
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -52,6 +52,22 @@ public class BookCategoryServiceTest {
         Assertions.assertThat(result).isEqualTo(bookCategory);
     }
 
+    @Test
+    @DisplayName("서적_카테고리 일괄 저장 : 성공")
+    public void saveAll_ok(){
+
+        Book book = Book.builder().bookId(1L).author("최종규").name("흑백요리사").regDate(LocalDateTime.now()).build();
+
+        List<BookCategory> list = new ArrayList<>();
+        list.add(BookCategory.builder().book(book).category(Category.builder().categoryId(CategoryCode.cook.getCode()).name(CategoryCode.cook.name()).build()).build());
+        list.add(BookCategory.builder().book(book).category(Category.builder().categoryId(CategoryCode.cook_general.getCode()).name(CategoryCode.cook_general.name()).build()).build());
+
+        given(bookCategoryRepository.saveAll(list)).willReturn(list);
+        List<BookCategory> result = bookCategoryService.saveAll(list);
+
+        Assertions.assertThat(result).isEqualTo(list);
+    }
+
     @Test
     @DisplayName("서적_카테고리 리스트 조회 : 성공")
     public void findAllByBookBookId_ok(){
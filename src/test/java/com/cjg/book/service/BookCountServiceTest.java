@@ -0,0 +1,99 @@
+package com.cjg.book.service;
+
+import com.cjg.book.cache.CatalogVersion;
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.CountMode;
+import com.cjg.book.dto.request.BookListRequestDto;
+import com.cjg.book.event.BookChangedEvent;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class BookCountServiceTest {
+
+    @Mock
+    private BookFacetService bookFacetService;
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    private BookCountService bookCountService;
+
+    private final AtomicInteger exactCallCount = new AtomicInteger();
+    private final LongSupplier exactCount = () -> {
+        exactCallCount.incrementAndGet();
+        return 7L;
+    };
+
+    @BeforeEach
+    public void setUp(){
+        bookCountService = new BookCountService(catalogVersion, bookFacetService);
+        bookCountService.init();
+    }
+
+    @Test
+    @DisplayName("전체 건수 : exact")
+    public void count_exact(){
+        BookCountService.BookCount result = bookCountService.count(BookListRequestDto.builder().build(), exactCount);
+
+        Assertions.assertThat(result).isEqualTo(new BookCountService.BookCount(7L, CountMode.exact));
+        Assertions.assertThat(exactCallCount).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("전체 건수 : cached : 같은 조건은 한번만 세고, 서적이 변경되면 다시 센다")
+    public void count_cached(){
+        BookListRequestDto dto1 = BookListRequestDto.builder().countMode(CountMode.cached).categoryCodeList(List.of(CategoryCode.cook, CategoryCode.it)).build();
+        BookListRequestDto dto2 = BookListRequestDto.builder().countMode(CountMode.cached).categoryCodeList(List.of(CategoryCode.it, CategoryCode.cook)).build();
+
+        Assertions.assertThat(bookCountService.count(dto1, exactCount)).isEqualTo(new BookCountService.BookCount(7L, CountMode.cached));
+        Assertions.assertThat(bookCountService.count(dto2, exactCount).totalCount()).isEqualTo(7L);
+        Assertions.assertThat(exactCallCount).hasValue(1);
+
+        catalogVersion.onBookChanged(BookChangedEvent.deleted(1L));
+
+        bookCountService.count(dto1, exactCount);
+        Assertions.assertThat(exactCallCount).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("전체 건수 : estimated : facet 색인")
+    public void count_estimated_facet(){
+        BookListRequestDto dto = BookListRequestDto.builder().countMode(CountMode.estimated).categoryCodeList(List.of(CategoryCode.cook)).build();
+        given(bookFacetService.count(dto)).willReturn(OptionalLong.of(5L));
+
+        Assertions.assertThat(bookCountService.count(dto, exactCount)).isEqualTo(new BookCountService.BookCount(5L, CountMode.estimated));
+        Assertions.assertThat(exactCallCount).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("전체 건수 : estimated : 색인 준비 전, 조건 없음 > 삭제 표시된 행을 세지 않도록 exact")
+    public void count_estimated_notReady(){
+        BookListRequestDto dto = BookListRequestDto.builder().countMode(CountMode.estimated).build();
+        given(bookFacetService.count(dto)).willReturn(OptionalLong.empty());
+
+        Assertions.assertThat(bookCountService.count(dto, exactCount)).isEqualTo(new BookCountService.BookCount(7L, CountMode.exact));
+        Assertions.assertThat(exactCallCount).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("전체 건수 : estimated : 추정할 수 없으면 exact")
+    public void count_estimated_fallback(){
+        BookListRequestDto dto = BookListRequestDto.builder().countMode(CountMode.estimated).author("최종규").build();
+        given(bookFacetService.count(any(BookListRequestDto.class))).willReturn(OptionalLong.empty());
+
+        Assertions.assertThat(bookCountService.count(dto, exactCount)).isEqualTo(new BookCountService.BookCount(7L, CountMode.exact));
+    }
+}
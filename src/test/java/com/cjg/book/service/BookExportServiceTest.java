@@ -0,0 +1,77 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.ExportFormat;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.repository.BookExportRow;
+import com.cjg.book.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+public class BookExportServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime regDate = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+
+    private final List<BookExportRow> rowList = List.of(
+            new BookExportRow(2L, "최종규", "흑백, 요리사", StatusCode.good.name(), regDate, null, CategoryCode.cook.name())
+            , new BookExportRow(2L, "최종규", "흑백, 요리사", StatusCode.good.name(), regDate, null, CategoryCode.cook_general.name())
+            , new BookExportRow(1L, "한강", "소년이 온다", StatusCode.damage.name(), regDate, null, null)
+    );
+
+    @Test
+    @DisplayName("서적 export : csv : 같은 서적의 카테고리를 한 줄로")
+    public void write_csv() throws Exception{
+
+        BookExportService bookExportService = new BookExportService(bookRepository, transactionManager, new ObjectMapper());
+        StringWriter writer = new StringWriter();
+
+        bookExportService.write(rowList.iterator(), ExportFormat.csv, writer);
+
+        Assertions.assertThat(writer.toString().split("\n")).containsExactly(
+                "bookId,author,name,statusCode,categoryCodeList,regDate,modDate"
+                , "2,최종규,\"흑백, 요리사\",good,cook|cook_general,2025-01-02 03:04:05,"
+                , "1,한강,소년이 온다,damage,,2025-01-02 03:04:05,"
+        );
+    }
+
+    @Test
+    @DisplayName("서적 export : ndjson")
+    public void write_ndjson() throws Exception{
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        BookExportService bookExportService = new BookExportService(bookRepository, transactionManager, objectMapper);
+        StringWriter writer = new StringWriter();
+
+        bookExportService.write(rowList.iterator(), ExportFormat.ndjson, writer);
+
+        String[] lineList = writer.toString().split("\n");
+        Assertions.assertThat(lineList).hasSize(2);
+        Assertions.assertThat(objectMapper.readTree(lineList[0]).get("categoryCodeList").size()).isEqualTo(2);
+        Assertions.assertThat(objectMapper.readTree(lineList[1]).get("bookId").asLong()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("csv 값 escape")
+    public void escapeCsv(){
+        Assertions.assertThat(BookExportService.escapeCsv("a\"b")).isEqualTo("\"a\"\"b\"");
+        Assertions.assertThat(BookExportService.escapeCsv("ab")).isEqualTo("ab");
+        Assertions.assertThat(BookExportService.escapeCsv(null)).isEqualTo("");
+    }
+}
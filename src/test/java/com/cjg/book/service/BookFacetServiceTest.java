@@ -0,0 +1,99 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.ResultCode;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.dto.request.BookListRequestDto;
+import com.cjg.book.dto.response.BookFacetResponseDto;
+import com.cjg.book.exception.CustomException;
+import com.cjg.book.index.BookDocument;
+import com.cjg.book.index.BookFacetIndex;
+import com.cjg.book.index.BookTextIndex;
+import com.cjg.book.repository.BookFacetRow;
+import com.cjg.book.repository.BookRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class BookFacetServiceTest {
+
+    private final BookFacetIndex bookFacetIndex = new BookFacetIndex();
+    private final BookTextIndex bookTextIndex = new BookTextIndex();
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookFacetService bookFacetService = new BookFacetService(bookFacetIndex, bookTextIndex, bookRepository);
+
+    private void put(long bookId, String author, StatusCode statusCode, CategoryCode categoryCode){
+        BookDocument document = BookDocument.builder()
+                .bookId(bookId)
+                .author(author)
+                .name("흑백요리사")
+                .status(statusCode.name())
+                .categoryMask(categoryCode.getBit())
+                .build();
+        bookFacetIndex.put(document);
+        bookTextIndex.put(document);
+    }
+
+    @Test
+    @DisplayName("건수 집계 : 지은이 조건")
+    public void facets_ok(){
+        put(1L, "최종규", StatusCode.good, CategoryCode.cook);
+        put(2L, "최종규", StatusCode.damage, CategoryCode.literature);
+        put(3L, "홍길동", StatusCode.good, CategoryCode.cook);
+        bookFacetIndex.markReady();
+        bookTextIndex.markReady();
+
+        BookFacetResponseDto result = bookFacetService.facets(BookListRequestDto.builder().author("최종규").build());
+
+        Assertions.assertThat(result.getTotalCount()).isEqualTo(2L);
+        Assertions.assertThat(result.getCategoryCountMap())
+                .containsEntry(CategoryCode.cook, 1L)
+                .containsEntry(CategoryCode.literature, 1L);
+        Assertions.assertThat(result.getStatusCountMap())
+                .containsEntry(StatusCode.good, 1L)
+                .containsEntry(StatusCode.damage, 1L);
+    }
+
+    @Test
+    @DisplayName("건수 집계 실패 : 색인 준비 전")
+    public void facets_fail_notReady(){
+        Assertions.assertThatThrownBy(() -> bookFacetService.facets(BookListRequestDto.builder().categoryCodeList(List.of(CategoryCode.cook)).build()))
+                .isInstanceOf(CustomException.class)
+                .hasMessage(ResultCode.BOOK_INDEX_NOT_READY.getMessage());
+    }
+
+    @Test
+    @DisplayName("건수 집계 : 기간 조건은 DB에서 categoryMask, 상태별로 센다")
+    public void facets_dateRange(){
+        BookListRequestDto dto = BookListRequestDto.builder()
+                .categoryCodeList(List.of(CategoryCode.cook))
+                .statusCode(StatusCode.good)
+                .regDateFrom(LocalDate.of(2026, 1, 1))
+                .build();
+
+        given(bookRepository.facetRowList(dto)).willReturn(List.of(
+                new BookFacetRow(CategoryCode.toMask(List.of(CategoryCode.cook, CategoryCode.cook_general)), StatusCode.good.name(), 3L)
+                , new BookFacetRow(CategoryCode.cook.getBit(), StatusCode.damage.name(), 2L)
+                , new BookFacetRow(CategoryCode.literature.getBit(), StatusCode.good.name(), 4L)));
+
+        //색인이 준비되지 않아도 DB로 센다.
+        BookFacetResponseDto result = bookFacetService.facets(dto);
+
+        Assertions.assertThat(result.getTotalCount()).isEqualTo(3L);
+        Assertions.assertThat(result.getCategoryCountMap())
+                .containsEntry(CategoryCode.cook, 3L)
+                .containsEntry(CategoryCode.cook_general, 3L)
+                .containsEntry(CategoryCode.literature, 4L)
+                .containsEntry(CategoryCode.it, 0L);
+        Assertions.assertThat(result.getStatusCountMap())
+                .containsEntry(StatusCode.good, 3L)
+                .containsEntry(StatusCode.damage, 2L)
+                .containsEntry(StatusCode.lost, 0L);
+    }
+}
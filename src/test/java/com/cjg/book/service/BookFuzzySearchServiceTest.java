@@ -0,0 +1,89 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.ResultCode;
+import com.cjg.book.code.StatusCode;
+import com.cjg.book.dto.request.BookFuzzySearchRequestDto;
+import com.cjg.book.dto.response.BookListResponseDto;
+import com.cjg.book.dto.response.BookResponseDto;
+import com.cjg.book.exception.CustomException;
+import com.cjg.book.index.BookDocument;
+import com.cjg.book.index.BookFuzzyIndex;
+import com.cjg.book.repository.BookRepository;
+import com.cjg.book.repository.BookRow;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class BookFuzzySearchServiceTest {
+
+    private final BookFuzzyIndex bookFuzzyIndex = new BookFuzzyIndex();
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final BookFuzzySearchService bookFuzzySearchService = new BookFuzzySearchService(bookFuzzyIndex, bookRepository, mock(BookService.class, Answers.CALLS_REAL_METHODS));
+
+    private BookRow row(long bookId){
+        return new BookRow(bookId, "최종규", "흑백요리사", StatusCode.good.name(), LocalDateTime.now(), null, "cook");
+    }
+
+    @Test
+    @DisplayName("오타 허용 검색 : 거리순 bookId의 해당 페이지만 조회")
+    public void search_ok(){
+        for(long bookId=1; bookId<=3; bookId++){
+            bookFuzzyIndex.put(BookDocument.builder().bookId(bookId).author("최종규").name("흑백요리사").build());
+        }
+        bookFuzzyIndex.markReady();
+
+        given(bookRepository.listByIdList(List.of(1L))).willReturn(List.of(row(1L)));
+
+        BookFuzzySearchRequestDto dto = BookFuzzySearchRequestDto.builder()
+                .query("흑백요리서")
+                .pageNumber(2)
+                .pageSize(2)
+                .build();
+
+        BookListResponseDto result = bookFuzzySearchService.search(dto);
+
+        Assertions.assertThat(result.getBookList()).extracting(BookResponseDto::getBookId).containsExactly(1L);
+        Assertions.assertThat(result.getTotalCount()).isEqualTo(3L);
+        Assertions.assertThat(result.getTotalPage()).isEqualTo(2);
+        Assertions.assertThat(result.getPrevPage()).isEqualTo("/v1/book/search?query=흑백요리서&pageNumber=1&pageSize=2");
+        Assertions.assertThat(result.getNextPage()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("오타 허용 검색 실패 : 허용 거리 초과")
+    public void search_fail_distance(){
+        bookFuzzyIndex.markReady();
+
+        BookFuzzySearchRequestDto dto = BookFuzzySearchRequestDto.builder()
+                .query("흑백요리서")
+                .distance(3)
+                .pageNumber(1)
+                .pageSize(10)
+                .build();
+
+        Assertions.assertThatThrownBy(() -> bookFuzzySearchService.search(dto))
+                .isInstanceOf(CustomException.class)
+                .hasMessage(ResultCode.BOOK_INVALID_DISTANCE.getMessage());
+    }
+
+    @Test
+    @DisplayName("오타 허용 검색 실패 : 색인 준비 전")
+    public void search_fail_notReady(){
+        BookFuzzySearchRequestDto dto = BookFuzzySearchRequestDto.builder()
+                .query("흑백요리서")
+                .pageNumber(1)
+                .pageSize(10)
+                .build();
+
+        Assertions.assertThatThrownBy(() -> bookFuzzySearchService.search(dto))
+                .isInstanceOf(CustomException.class)
+                .hasMessage(ResultCode.BOOK_INDEX_NOT_READY.getMessage());
+    }
+}
@@ -1,34 +1,52 @@
 package com.cjg.book.service;
 
 
+import com.cjg.book.cache.BookCache;
+import com.cjg.book.cache.CatalogVersion;
 import com.cjg.book.code.CategoryCode;
+import com.cjg.book.code.CountMode;
+import com.cjg.book.code.SortCode;
 import com.cjg.book.code.StatusCode;
 import com.cjg.book.domain.Book;
-import com.cjg.book.domain.BookCategory;
-import com.cjg.book.domain.Category;
 import com.cjg.book.dto.request.BookDeleteRequestDto;
+import com.cjg.book.dto.request.BookListCursor;
 import com.cjg.book.dto.request.BookListRequestDto;
 import com.cjg.book.dto.request.BookModifyRequestDto;
 import com.cjg.book.dto.request.BookSaveRequestDto;
 import com.cjg.book.dto.response.BookListResponseDto;
 import com.cjg.book.dto.response.BookResponseDto;
+import com.cjg.book.event.BookChangedEvent;
 import com.cjg.book.exception.CustomException;
 import com.cjg.book.repository.BookRepository;
+import com.cjg.book.repository.BookRow;
 import com.cjg.book.repository.CategoryRepository;
+import com.cjg.book.sql.ParallelQueryExecutor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
 public class BookServiceTest {
@@ -40,7 +58,7 @@ public class BookServiceTest {
     private BookCategoryService bookCategoryService;
 
     @Mock
-    private CategoryService categoryService;
+    private CategoryRegistry categoryRegistry;
 
     @Mock
     private CategoryRepository categoryRepository;
@@ -48,6 +66,23 @@ public class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    //init()을 호출하지 않으면 캐시 없이 loader를 그대로 호출한다.
+    @Spy
+    private BookCache bookCache = new BookCache(new ObjectMapper());
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Mock
+    private BookCountService bookCountService;
+
+    //트랜잭션 관리자는 mock이므로 조회는 가상 스레드에서 그대로 실행된다.
+    @Spy
+    private ParallelQueryExecutor parallelQueryExecutor = new ParallelQueryExecutor(mock(PlatformTransactionManager.class), true, Duration.ofSeconds(30));
+
     @Test
     @DisplayName("서적 저장 : 성공")
     public void save_ok(){
@@ -82,6 +117,76 @@ public class BookServiceTest {
         Assertions.assertThat(result.getStatusCode()).isEqualTo(bookSaveRequestDto.getStatusCode());
     }
 
+    @Test
+    @DisplayName("서적 일괄 저장 : 성공")
+    public void saveAll_ok(){
+
+        List<BookSaveRequestDto> bookDtoList = List.of(
+                BookSaveRequestDto.builder()
+                        .categoryCodeList(List.of(CategoryCode.cook, CategoryCode.cook_general))
+                        .author("최종규")
+                        .name("흑백요리사")
+                        .statusCode(StatusCode.good)
+                        .build()
+                , BookSaveRequestDto.builder()
+                        .categoryCodeList(List.of(CategoryCode.literature))
+                        .author("한강")
+                        .name("소년이 온다")
+                        .statusCode(StatusCode.good)
+                        .build()
+        );
+
+        List<Book> bookList = List.of(
+                Book.builder().bookId(1L).author("최종규").name("흑백요리사").status(StatusCode.good.name()).build()
+                , Book.builder().bookId(2L).author("한강").name("소년이 온다").status(StatusCode.good.name()).build()
+        );
+
+        given(bookRepository.saveAll(anyList())).willReturn(bookList);
+
+        List<Book> result = bookService.saveAll(bookDtoList);
+
+        Assertions.assertThat(result).hasSize(2);
+        then(bookCategoryService).should().saveAll(argThat(list -> list.size() == 3));
+        then(applicationEventPublisher).should(times(2)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    @DisplayName("서적 ETag : 마지막 변경 시각")
+    public void getETag_ok(){
+
+        LocalDateTime modDate = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123456000);
+        given(bookRepository.findVersionById(1L)).willReturn(Optional.of(modDate));
+
+        Assertions.assertThat(bookService.getETag(1L)).isEqualTo("\"1-" + modDate + "\"");
+        then(bookCategoryService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("서적 ETag : 실패 : 서적 없음")
+    public void getETag_fail_null(){
+
+        given(bookRepository.findVersionById(1L)).willReturn(Optional.empty());
+
+        Assertions.assertThatThrownBy(() -> bookService.getETag(1L)).isInstanceOf(CustomException.class);
+    }
+
+    @Test
+    @DisplayName("서적 목록 ETag : 서적 변경시 바뀜")
+    public void getListETag(){
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .author("최종규")
+                .pageNumber(1)
+                .pageSize(10)
+                .build();
+
+        String first = bookService.getListETag(bookListRequestDto);
+        Assertions.assertThat(bookService.getListETag(bookListRequestDto)).isEqualTo(first);
+
+        catalogVersion.onBookChanged(BookChangedEvent.deleted(1L));
+        Assertions.assertThat(bookService.getListETag(bookListRequestDto)).isNotEqualTo(first);
+    }
+
     @Test
     @DisplayName("서적 1개 검색 : 성공")
     public void findById_ok(){
@@ -94,27 +199,13 @@ public class BookServiceTest {
                 .regDate(LocalDateTime.now())
                 .build();
 
-        List<BookCategory> bookCategoryList = new ArrayList<>();
-
-        BookCategory bookCategory1 = BookCategory.builder()
-                .bookCategoryId(1L)
-                .book(book)
-                .category(Category.builder().categoryId(CategoryCode.cook.getCode()).name(CategoryCode.cook.name()).build()).build();
-
-        BookCategory bookCategory2 = BookCategory.builder()
-                .bookCategoryId(1L)
-                .book(book)
-                .category(Category.builder().categoryId(CategoryCode.cook_general.getCode()).name(CategoryCode.cook_general.name()).build()).build();
-
-        bookCategoryList.add(bookCategory1);
-        bookCategoryList.add(bookCategory2);
-
         given(bookRepository.findById(book.getBookId())).willReturn(Optional.of(book));
-        given(bookCategoryService.findAllByBookBookId(book.getBookId())).willReturn(bookCategoryList);
+        given(bookCategoryService.findCategoryIdList(book.getBookId())).willReturn(List.of(CategoryCode.cook.getCode(), CategoryCode.cook_general.getCode()));
 
         BookResponseDto result = bookService.findById(1L);
 
         Assertions.assertThat(result.getBookId()).isEqualTo(book.getBookId());
+        Assertions.assertThat(result.getCategoryCodeList()).containsExactly(CategoryCode.cook, CategoryCode.cook_general);
 
     }
 
@@ -137,58 +228,122 @@ public class BookServiceTest {
                 .pageNumber(pageNumber)
                 .pageSize(pageSize).build();
 
-        List<Book> bookList = new ArrayList<>();
-        Map<Long, List<BookCategory>> bookCategoryMap = new HashMap<>();
+        List<BookRow> bookList = new ArrayList<>();
 
         for(int i=0; i<bookListRequestDto.getPageSize(); i++) {
-            Book book = Book.builder()
-                    .bookId((long)i)
-                    .author("최종규" + i)
-                    .name("흑백요리사" + i)
-                    .status(StatusCode.good.name())
-                    .regDate(LocalDateTime.now())
-                    .build();
-
-            bookList.add(0, book);
-
-            List<BookCategory> bookCategoryList = new ArrayList<>();
-
-            BookCategory bookCategory1 = BookCategory.builder()
-                    .bookCategoryId((long)i)
-                    .book(book)
-                    .category(Category.builder().categoryId(CategoryCode.cook.getCode()).name(CategoryCode.cook.name()).build()).build();
-
-            BookCategory bookCategory2 = BookCategory.builder()
-                    .bookCategoryId((long)i+1)
-                    .book(book)
-                    .category(Category.builder().categoryId(CategoryCode.cook_general.getCode()).name(CategoryCode.cook_general.name()).build()).build();
-
-            bookCategoryList.add(bookCategory1);
-            bookCategoryList.add(bookCategory2);
-
-            bookCategoryMap.put((long)i, bookCategoryList);
+            bookList.add(0, new BookRow((long)i, "최종규" + i, "흑백요리사" + i, StatusCode.good.name(), LocalDateTime.now(), null, "cook,cook_general"));
         }
 
         Pageable pageable = PageRequest.of(bookListRequestDto.getPageNumber()-1, bookListRequestDto.getPageSize(), Sort.Direction.DESC, "regDate");
-        Page<Book> page = new PageImpl<>(bookList, pageable, totalCount);
+        Page<BookRow> page = new PageImpl<>(bookList, pageable, totalCount);
 
-        given(bookRepository.list(pageable, bookListRequestDto)).willReturn(page);
-
-        for(int i=0; i<bookListRequestDto.getPageSize(); i++){
-            given(bookCategoryService.findAllByBookBookId((long)i)).willReturn(bookCategoryMap.get((long)i));
-        }
+        given(bookRepository.list(eq(pageable), eq(bookListRequestDto), any())).willReturn(page);
 
         BookListResponseDto result = bookService.list(bookListRequestDto);
 
         Assertions.assertThat(result.getBookList().size()).isEqualTo(bookListRequestDto.getPageSize());
+        Assertions.assertThat(result.getBookList()).allSatisfy(e -> Assertions.assertThat(e.getCategoryCodeList()).containsExactly(CategoryCode.cook, CategoryCode.cook_general));
         Assertions.assertThat(result.getPageNumber()).isEqualTo(bookListRequestDto.getPageNumber());
         Assertions.assertThat(result.getTotalPage()).isEqualTo(totalCount/bookListRequestDto.getPageSize());
         Assertions.assertThat(result.getTotalCount()).isEqualTo(totalCount);
+        Assertions.assertThat(result.getCountMode()).isEqualTo(CountMode.exact);
         Assertions.assertThat(result.getNextPage()).isEqualTo("/v1/book/list?pageNumber=" + (pageNumber+1) + "&pageSize=" + pageSize);
         Assertions.assertThat(result.getPrevPage()).isEqualTo("/v1/book/list?pageNumber=" + (pageNumber-1) + "&pageSize=" + pageSize);
     }
 
 
+    @Test
+    @DisplayName("서적 리스트 검색 : 추정 건수")
+    public void list_countMode_estimated(){
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .pageNumber(1)
+                .pageSize(2)
+                .countMode(CountMode.estimated)
+                .build();
+
+        List<BookRow> bookList = List.of(
+                new BookRow(2L, "최종규", "흑백요리사2", StatusCode.good.name(), LocalDateTime.now(), null, "cook")
+                , new BookRow(1L, "최종규", "흑백요리사", StatusCode.good.name(), LocalDateTime.now(), null, "cook"));
+
+        given(bookCountService.count(eq(bookListRequestDto), any())).willReturn(new BookCountService.BookCount(100L, CountMode.estimated));
+        given(bookRepository.list(any(Pageable.class), eq(bookListRequestDto), any())).willAnswer(invocation -> {
+            ToLongFunction<LongSupplier> totalCount = invocation.getArgument(2);
+            return new PageImpl<>(bookList, invocation.getArgument(0), totalCount.applyAsLong(() -> 3L));
+        });
+
+        BookListResponseDto result = bookService.list(bookListRequestDto);
+
+        Assertions.assertThat(result.getTotalCount()).isEqualTo(100L);
+        Assertions.assertThat(result.getTotalPage()).isEqualTo(50);
+        Assertions.assertThat(result.getCountMode()).isEqualTo(CountMode.estimated);
+        Assertions.assertThat(result.getNextPage()).isEqualTo("/v1/book/list?pageNumber=2&pageSize=2&countMode=estimated");
+    }
+
+    @Test
+    @DisplayName("서적 리스트 커서 검색 : 성공")
+    public void list_cursor_ok(){
+
+        final int pageSize = 3;
+        LocalDateTime regDate = LocalDateTime.of(2025, 1, 1, 0, 0, 0);
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .statusCode(StatusCode.good)
+                .pageSize(pageSize)
+                .cursor(new BookListCursor(regDate, 10L).encode())
+                .build();
+
+        List<BookRow> bookList = new ArrayList<>();
+        for(int i=0; i<pageSize+1; i++){
+            bookList.add(new BookRow(9L - i, "최종규", "흑백요리사", StatusCode.good.name(), regDate.minusMinutes(i), null, null));
+        }
+
+        given(bookRepository.listByCursor(any(BookListRequestDto.class), any(BookListCursor.class), eq(pageSize+1))).willReturn(bookList);
+
+        BookListResponseDto result = bookService.list(bookListRequestDto);
+
+        BookListCursor nextCursor = BookListCursor.decode(result.getNextCursor());
+
+        Assertions.assertThat(result.getBookList().size()).isEqualTo(pageSize);
+        Assertions.assertThat(nextCursor.getBookId()).isEqualTo(bookList.get(pageSize-1).bookId());
+        Assertions.assertThat(nextCursor.getRegDate()).isEqualTo(bookList.get(pageSize-1).regDate());
+        Assertions.assertThat(result.getNextPage()).isEqualTo("/v1/book/list?statusCode=good&cursor=" + result.getNextCursor() + "&pageSize=" + pageSize);
+        Assertions.assertThat(result.getPrevPage()).isEqualTo("");
+    }
+
+    @Test
+    @DisplayName("서적 리스트 커서 검색 : 성공 : 마지막 페이지")
+    public void list_cursor_ok_last(){
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .pageSize(10)
+                .cursor("")
+                .build();
+
+        List<BookRow> bookList = new ArrayList<>();
+        bookList.add(new BookRow(1L, "최종규", "흑백요리사", StatusCode.good.name(), LocalDateTime.now(), null, "cook"));
+
+        given(bookRepository.listByCursor(bookListRequestDto, null, 11)).willReturn(bookList);
+
+        BookListResponseDto result = bookService.list(bookListRequestDto);
+
+        Assertions.assertThat(result.getBookList().size()).isEqualTo(1);
+        Assertions.assertThat(result.getNextCursor()).isEqualTo("");
+        Assertions.assertThat(result.getNextPage()).isEqualTo("");
+    }
+
+    @Test
+    @DisplayName("서적 리스트 커서 검색 : 실패 : 잘못된 커서")
+    public void list_cursor_fail_invalid(){
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .pageSize(10)
+                .cursor("invalid")
+                .build();
+
+        Assertions.assertThatThrownBy(()-> bookService.list(bookListRequestDto)).isInstanceOf(CustomException.class);
+    }
+
     @Test
     @DisplayName("이전페이지 가져오기 : 성공")
     public void getPageUrl_prev_ok() {
@@ -209,6 +364,21 @@ public class BookServiceTest {
         Assertions.assertThat(result).isEqualTo("/v1/book/list?categoryCodeList=cook,cook_general&statusCode=good&author=최종규&name=흑백요리사&pageNumber=1&pageSize=10");
     }
 
+    @Test
+    @DisplayName("다음페이지 가져오기 : 성공 : 정렬, 기간 조건 유지")
+    public void getPageUrl_next_ok_sortAndDateRange() {
+
+        BookListRequestDto bookListRequestDto = BookListRequestDto.builder()
+                .regDateFrom(LocalDate.of(2025, 1, 1))
+                .regDateTo(LocalDate.of(2025, 12, 31))
+                .sort(SortCode.name_asc)
+                .pageNumber(1)
+                .pageSize(10).build();
+
+        String result = bookService.getPageUrl(bookListRequestDto, "next", 10);
+        Assertions.assertThat(result).isEqualTo("/v1/book/list?regDateFrom=2025-01-01&regDateTo=2025-12-31&sort=name_asc&pageNumber=2&pageSize=10");
+    }
+
     @Test
     @DisplayName("이전페이지 가져오기 : 성공 : 이전페이지 없을 때")
     public void getPageUrl_prev_ok_empty() {
@@ -305,6 +475,68 @@ public class BookServiceTest {
 
     }
 
+    @Test
+    @DisplayName("서적 수정 : 성공 : 카테고리 변경분만 반영")
+    public void modify_ok_categoryDiff() {
+
+        BookModifyRequestDto bookModifyRequestDto = BookModifyRequestDto.builder()
+                .bookId(1L)
+                .categoryCodeList(List.of(CategoryCode.cook, CategoryCode.it))
+                .author("최종규")
+                .name("흑백요리사")
+                .statusCode(StatusCode.good)
+                .build();
+
+        Book book = Book.builder()
+                .bookId(bookModifyRequestDto.getBookId())
+                .author(bookModifyRequestDto.getAuthor())
+                .name(bookModifyRequestDto.getName())
+                .status(bookModifyRequestDto.getStatusCode().name())
+                .regDate(LocalDateTime.now())
+                .build();
+
+        given(bookRepository.findById(bookModifyRequestDto.getBookId())).willReturn(Optional.of(book));
+        given(bookCategoryService.findCategoryIdList(book.getBookId())).willReturn(List.of(CategoryCode.cook.getCode(), CategoryCode.cook_general.getCode()));
+        given(categoryRegistry.getCategoryId(CategoryCode.cook)).willReturn(CategoryCode.cook.getCode());
+        given(categoryRegistry.getCategoryId(CategoryCode.it)).willReturn(CategoryCode.it.getCode());
+
+        bookService.modify(bookModifyRequestDto);
+
+        then(bookCategoryService).should().deleteAllByBookIdAndCategoryIdIn(book.getBookId(), List.of(CategoryCode.cook_general.getCode()));
+        then(bookCategoryService).should().saveAll(argThat(list -> list.size() == 1));
+    }
+
+    @Test
+    @DisplayName("서적 수정 : 성공 : 카테고리 변경 없으면 카테고리 쿼리 실행 안함")
+    public void modify_ok_categorySame() {
+
+        BookModifyRequestDto bookModifyRequestDto = BookModifyRequestDto.builder()
+                .bookId(1L)
+                .categoryCodeList(List.of(CategoryCode.cook_general, CategoryCode.cook))
+                .author("최종규")
+                .name("흑백요리사")
+                .statusCode(StatusCode.good)
+                .build();
+
+        Book book = Book.builder()
+                .bookId(bookModifyRequestDto.getBookId())
+                .author(bookModifyRequestDto.getAuthor())
+                .name(bookModifyRequestDto.getName())
+                .status(bookModifyRequestDto.getStatusCode().name())
+                .regDate(LocalDateTime.now())
+                .build();
+
+        given(bookRepository.findById(bookModifyRequestDto.getBookId())).willReturn(Optional.of(book));
+        given(bookCategoryService.findCategoryIdList(book.getBookId())).willReturn(List.of(CategoryCode.cook.getCode(), CategoryCode.cook_general.getCode()));
+        given(categoryRegistry.getCategoryId(CategoryCode.cook)).willReturn(CategoryCode.cook.getCode());
+        given(categoryRegistry.getCategoryId(CategoryCode.cook_general)).willReturn(CategoryCode.cook_general.getCode());
+
+        bookService.modify(bookModifyRequestDto);
+
+        then(bookCategoryService).should(never()).deleteAllByBookIdAndCategoryIdIn(anyLong(), anyCollection());
+        then(bookCategoryService).should(never()).saveAll(anyList());
+    }
+
     @Test
     @DisplayName("서적 수정 : 실패 : 해당 bookId가 없을 때")
     public void modify_fail_null() {
@@ -330,22 +562,18 @@ public class BookServiceTest {
     public void delete_ok(){
         BookDeleteRequestDto bookDeleteRequestDto = BookDeleteRequestDto.builder().bookId(1L).build();
 
-        Book book = Book.builder()
-                        .bookId(bookDeleteRequestDto.getBookId())
-                        .author("최종규")
-                        .name("흑백요리사")
-                        .regDate(LocalDateTime.now())
-                        .build();
-
-        given(bookRepository.findById(bookDeleteRequestDto.getBookId())).willReturn(Optional.ofNullable(book));
+        given(bookRepository.markDeleted(bookDeleteRequestDto.getBookId())).willReturn(1);
         bookService.delete(bookDeleteRequestDto);
+
+        then(bookCategoryService).should(never()).deleteAllByBookBookId(any());
+        then(applicationEventPublisher).should().publishEvent(any(BookChangedEvent.class));
     }
 
     @Test
     @DisplayName("서적 삭제 : 실패 : 서적 없을때")
     public void delete_fail_null(){
         BookDeleteRequestDto bookDeleteRequestDto = BookDeleteRequestDto.builder().bookId(1L).build();
-        given(bookRepository.findById(bookDeleteRequestDto.getBookId())).willReturn(Optional.empty());
+        given(bookRepository.markDeleted(bookDeleteRequestDto.getBookId())).willReturn(0);
         Assertions.assertThatThrownBy(()-> bookService.delete(bookDeleteRequestDto)).isInstanceOf(CustomException.class);
     }
 
@@ -365,6 +593,21 @@ public class BookServiceTest {
         Assertions.assertThat(result.getStatus()).isEqualTo(bookDto.getStatusCode().name());
     }
 
+    @Test
+    @DisplayName("BookSaveRequestDto > Book 변환 : 카테고리 비트")
+    public void toBook_categoryMask() {
+        BookSaveRequestDto bookDto = BookSaveRequestDto.builder()
+                .categoryCodeList(List.of(CategoryCode.literature, CategoryCode.cook_general))
+                .author("최종규")
+                .name("흑백요리사")
+                .statusCode(StatusCode.good)
+                .build();
+
+        Book result = bookService.toBook(bookDto);
+
+        Assertions.assertThat(result.getCategoryMask()).isEqualTo(0b1000001L);
+    }
+
     @Test
     @DisplayName("Book > BookSaveRequestDto 변환")
     public void toBookResponseDto() {
@@ -0,0 +1,87 @@
+package com.cjg.book.service;
+
+import com.cjg.book.code.CategoryCode;
+import com.cjg.book.domain.Category;
+import com.cjg.book.repository.CategoryRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class CategoryRegistryTest {
+
+    @InjectMocks
+    private CategoryRegistry categoryRegistry;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    private List<Category> categoryTable(){
+        return new ArrayList<>(Arrays.stream(CategoryCode.values())
+                .map(e -> Category.builder().categoryId(e.getCode()).name(e.name()).build())
+                .toList());
+    }
+
+    @Test
+    @DisplayName("카테고리 레지스트리 로드 : 성공")
+    public void load_ok(){
+        given(categoryRepository.findAll()).willReturn(categoryTable());
+
+        categoryRegistry.load();
+
+        Assertions.assertThat(categoryRegistry.getCategoryId(CategoryCode.cook)).isEqualTo(CategoryCode.cook.getCode());
+    }
+
+    @Test
+    @DisplayName("카테고리 참조 : DB 조회 없이 참조 반환")
+    public void getReference_ok(){
+        Category reference = Category.builder().categoryId(CategoryCode.it.getCode()).name(CategoryCode.it.name()).build();
+
+        given(categoryRepository.findAll()).willReturn(categoryTable());
+        given(categoryRepository.getReferenceById(CategoryCode.it.getCode())).willReturn(reference);
+
+        categoryRegistry.load();
+
+        Assertions.assertThat(categoryRegistry.getReference(CategoryCode.it)).isEqualTo(reference);
+    }
+
+    @Test
+    @DisplayName("카테고리 레지스트리 로드 : 실패 : 테이블에 없는 코드")
+    public void load_fail_missing(){
+        List<Category> table = categoryTable();
+        table.removeLast();
+        given(categoryRepository.findAll()).willReturn(table);
+
+        Assertions.assertThatThrownBy(()-> categoryRegistry.load()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("카테고리 레지스트리 로드 : 실패 : 이름 불일치")
+    public void load_fail_name(){
+        List<Category> table = categoryTable();
+        table.set(0, Category.builder().categoryId(CategoryCode.literature.getCode()).name("novel").build());
+        given(categoryRepository.findAll()).willReturn(table);
+
+        Assertions.assertThatThrownBy(()-> categoryRegistry.load()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("카테고리 레지스트리 로드 : 실패 : enum에 없는 카테고리")
+    public void load_fail_unknown(){
+        List<Category> table = categoryTable();
+        table.add(Category.builder().categoryId(99L).name("unknown").build());
+        given(categoryRepository.findAll()).willReturn(table);
+
+        Assertions.assertThatThrownBy(()-> categoryRegistry.load()).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,99 @@
+package com.cjg.book.sql;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.mock;
+
+public class ParallelQueryExecutorTest {
+
+    private final ParallelQueryExecutor parallelQueryExecutor = new ParallelQueryExecutor(mock(PlatformTransactionManager.class), true, Duration.ofSeconds(30));
+
+    @AfterEach
+    public void tearDown(){
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        parallelQueryExecutor.close();
+    }
+
+    //상대 조회가 시작되어야 끝나므로 순서대로 실행하면 timeout
+    private String awaitOther(CountDownLatch latch, String result){
+        latch.countDown();
+        try{
+            if(!latch.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("not parallel");
+        }catch(InterruptedException e){
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("동시 실행 : 두 조회가 동시에 진행")
+    public void both_parallel(){
+        CountDownLatch latch = new CountDownLatch(2);
+
+        ParallelQueryExecutor.Both<String, String> result = parallelQueryExecutor.both(
+                () -> awaitOther(latch, "book")
+                , () -> awaitOther(latch, "category"));
+
+        Assertions.assertThat(result.first()).isEqualTo("book");
+        Assertions.assertThat(result.second()).isEqualTo("category");
+    }
+
+    @Test
+    @DisplayName("동시 실행 : 하나가 실패하면 나머지를 기다리지 않고 예외를 그대로 던진다. 실행 중인 조회는 interrupt하지 않는다")
+    public void both_fail_noInterrupt(){
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        Assertions.assertThatThrownBy(() -> parallelQueryExecutor.both(
+                        () -> {
+                            try{
+                                release.await(5, TimeUnit.SECONDS);
+                            }catch(InterruptedException e){
+                                interrupted.set(true);
+                            }
+                            finished.countDown();
+                            return "slow";
+                        }
+                        , () -> {
+                            throw new IllegalArgumentException("fail");
+                        }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("fail");
+
+        release.countDown();
+        Assertions.assertThat(awaitQuietly(finished)).isTrue();
+        Assertions.assertThat(interrupted).isFalse();
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서는 순서대로 실행")
+    public void both_inTransaction(){
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        Thread caller = Thread.currentThread();
+
+        ParallelQueryExecutor.Both<Thread, Thread> result = parallelQueryExecutor.both(Thread::currentThread, Thread::currentThread);
+
+        Assertions.assertThat(parallelQueryExecutor.isParallel()).isFalse();
+        Assertions.assertThat(result.first()).isSameAs(caller);
+        Assertions.assertThat(result.second()).isSameAs(caller);
+    }
+
+    private boolean awaitQuietly(CountDownLatch latch){
+        try{
+            return latch.await(5, TimeUnit.SECONDS);
+        }catch(InterruptedException e){
+            return false;
+        }
+    }
+}
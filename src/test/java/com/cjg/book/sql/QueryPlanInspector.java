@@ -0,0 +1,135 @@
+package com.cjg.book.sql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/*
+MariaDB 실행 계획 확인
+EXPLAIN(추정값)
+- Extra에 Using filesort, Using temporary가 있으면서 행 수가 maxSortRows보다 많으면 실패 : 색인 후보처럼 건수가 제한된 행만 정렬하는 것은 허용
+읽은 행 수 : SELECT는 ANALYZE FORMAT=JSON(실제 실행 값), 수정/삭제는 실행하면 안되므로 EXPLAIN 추정값
+- const, eq_ref(기본키, 유니크 키 1건)를 제외한 모든 접근 방식에 적용한다. 모든 서적 인덱스가 DELETED로 시작하므로
+  DELETED = 0으로 테이블 전체를 읽어도 type은 ref이기 때문이다.
+- 테이블/인덱스 전체 읽기(ALL, index)로 maxScanRows보다 많이 읽으면 실패 : 카테고리처럼 작은 기준 테이블은 허용
+- 읽은 행 중 WHERE 조건(인덱스 조건 pushdown 포함)에서 버린 행이 maxFilteredRows보다 많으면 실패 : 인덱스로 찾지 못하고 읽은 뒤 거른 조건
+  조건에 맞아 읽은 행(count 대상, 깊은 offset에서 건너뛰는 행)은 인덱스 범위로 읽은 것이므로 세지 않는다.
+추정값은 통계 기반이므로 시드 데이터가 기준보다 충분히 많아야 한다.
+*/
+public class QueryPlanInspector {
+
+    private static final Set<String> SINGLE_ROW_TYPES = Set.of("system", "const", "eq_ref");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long maxScanRows;
+    private final long maxSortRows;
+    private final long maxFilteredRows;
+
+    public QueryPlanInspector(JdbcTemplate jdbcTemplate, long maxScanRows, long maxSortRows, long maxFilteredRows){
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxScanRows = maxScanRows;
+        this.maxSortRows = maxSortRows;
+        this.maxFilteredRows = maxFilteredRows;
+    }
+
+    public List<Map<String, Object>> explain(String sql){
+        return jdbcTemplate.queryForList("explain " + sql);
+    }
+
+    //SELECT를 실제로 실행하여 테이블별 읽은 행 수를 구한다.
+    public JsonNode analyze(String sql){
+        try{
+            return objectMapper.readTree(jdbcTemplate.queryForObject("analyze format=json " + sql, String.class));
+        }catch(JsonProcessingException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //조회, 수정, 삭제 문장만 확인한다.(시퀀스, INSERT 제외)
+    public static boolean isExplainable(String sql){
+        String lower = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return isSelect(lower) || lower.startsWith("update") || lower.startsWith("delete");
+    }
+
+    private static boolean isSelect(String sql){
+        String lower = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return lower.startsWith("select") && !lower.startsWith("select nextval");
+    }
+
+    public List<String> problems(String sql){
+        List<String> problemList = new ArrayList<>();
+        for(Map<String, Object> row : explain(sql)){
+            String table = String.valueOf(row.get("table"));
+            String type = String.valueOf(row.get("type"));
+            String extra = row.get("Extra") == null ? "" : row.get("Extra").toString();
+            long rows = row.get("rows") instanceof Number number ? number.longValue() : 0L;
+
+            if(extra.contains("Using filesort") && rows > maxSortRows){
+                problemList.add(table + " : filesort (" + rows + " rows)");
+            }
+            if(extra.contains("Using temporary") && rows > maxSortRows){
+                problemList.add(table + " : temporary table (" + rows + " rows)");
+            }
+
+            //수정, 삭제는 버린 행 수를 알 수 없으므로 읽는 행 전체를 기준으로 한다.
+            if(!isSelect(sql) && !SINGLE_ROW_TYPES.contains(type)){
+                checkRows(problemList, table, type, rows, rows);
+            }
+        }
+
+        if(isSelect(sql)){
+            List<JsonNode> tableList = new ArrayList<>();
+            collectTables(analyze(sql), tableList);
+            for(JsonNode table : tableList){
+                String type = table.path("access_type").asText();
+                if(SINGLE_ROW_TYPES.contains(type)) continue;
+
+                //r_rows는 한번 접근할 때의 평균, r_icp_filtered/r_filtered는 인덱스 조건/WHERE 조건을 통과한 비율(%)
+                double loops = table.path("r_loops").asDouble(0);
+                double returned = table.path("r_rows").asDouble(0) * loops;
+                double read = returned * 100 / Math.max(table.path("r_icp_filtered").asDouble(100), 0.01);
+                double kept = returned * table.path("r_filtered").asDouble(100) / 100;
+
+                checkRows(problemList, table.path("table_name").asText(), type, Math.round(read), Math.round(read - kept));
+            }
+        }
+        return problemList;
+    }
+
+    private void checkRows(List<String> problemList, String table, String type, long read, long filtered){
+        if(("ALL".equals(type) || "index".equals(type)) && read > maxScanRows){
+            problemList.add(table + " : full " + ("ALL".equals(type) ? "table" : "index") + " scan (" + read + " rows)");
+        }
+        if(filtered > maxFilteredRows){
+            problemList.add(table + " : " + type + " read " + read + " rows, filtered out " + filtered + " rows");
+        }
+    }
+
+    //ANALYZE FORMAT=JSON의 중첩 구조(nested_loop, subqueries, filesort 등) 안의 모든 table 항목
+    private static void collectTables(JsonNode node, List<JsonNode> tableList){
+        if(node.isObject() && node.has("access_type")) tableList.add(node);
+        node.forEach(child -> collectTables(child, tableList));
+    }
+
+    public void assertIndexed(String sql){
+        Assertions.assertThat(problems(sql))
+                .as("query plan of %s%n%s", sql, explain(sql))
+                .isEmpty();
+    }
+
+    //실행된 SQL 중 확인 대상이 하나 이상 있어야 한다.
+    public void assertIndexed(List<String> sqlList){
+        List<String> explainableList = sqlList.stream().filter(QueryPlanInspector::isExplainable).toList();
+        Assertions.assertThat(explainableList).as("captured statements").isNotEmpty();
+        explainableList.forEach(this::assertIndexed);
+    }
+}
@@ -0,0 +1,36 @@
+package com.cjg.book.sql;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/*
+실행된 SQL을 바인딩 값이 들어간 문장 그대로 모은다.(QueryPlanInspector로 EXPLAIN 하기 위함)
+ParallelQueryExecutor의 다른 스레드에서 실행한 SQL도 모이도록 스레드와 상관없이 기록한다. 동시에 하나의 capture만 사용한다.
+날짜 값이 MariaDB가 읽을 수 있는 형식으로 들어가도록 p6spy 날짜 형식을 지정해야 한다.(build.gradle queryPlanTest)
+*/
+public class SqlCaptureListener extends SimpleJdbcEventListener {
+
+    private static volatile Queue<String> captured;
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        Queue<String> queue = captured;
+        if(queue != null && e == null) queue.add(statementInformation.getSqlWithValues());
+    }
+
+    public static List<String> capture(Runnable runnable){
+        captured = new ConcurrentLinkedQueue<>();
+        try{
+            runnable.run();
+            return new ArrayList<>(captured);
+        }finally{
+            captured = null;
+        }
+    }
+}
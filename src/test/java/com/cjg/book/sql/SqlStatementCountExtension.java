@@ -0,0 +1,62 @@
+package com.cjg.book.sql;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/*
+테스트 단위 SQL 실행 수 확인
+@RegisterExtension으로 등록하면 테스트마다 SqlStatementRecorder 기록을 시작한다.
+SqlStatementListener가 p6spy로 감싼 DataSource에 등록되어 있어야 한다.(TestConfig)
+
+예)
+    sqlStatementCount.reset();
+    bookRepository.list(...);
+    sqlStatementCount.assertStatementCountAtMost(2);
+*/
+public class SqlStatementCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final int DEFAULT_N_PLUS_ONE_THRESHOLD = 5;
+
+    private SqlStatementRecorder recorder;
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        recorder = SqlStatementRecorder.start();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        SqlStatementRecorder.stop();
+    }
+
+    //데이터 준비에 실행된 SQL을 빼고 확인할 때 사용
+    public void reset(){
+        recorder.reset();
+    }
+
+    public long getStatementCount(){
+        return recorder.getStatementCount();
+    }
+
+    public long getStatementCount(String shapePrefix){
+        return recorder.getStatementCount(shapePrefix);
+    }
+
+    public long getBatchedRowCount(){
+        return recorder.getBatchedRowCount();
+    }
+
+    public void assertStatementCountAtMost(int max){
+        Assertions.assertThat(recorder.getStatementCount())
+                .as("SQL statement count")
+                .isLessThanOrEqualTo(max);
+    }
+
+    public void assertNoNPlusOne(){
+        Assertions.assertThat(recorder.suspectedNPlusOne(DEFAULT_N_PLUS_ONE_THRESHOLD))
+                .as("suspected N+1")
+                .isEmpty();
+    }
+}
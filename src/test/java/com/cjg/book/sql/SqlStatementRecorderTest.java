@@ -0,0 +1,77 @@
+package com.cjg.book.sql;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+public class SqlStatementRecorderTest {
+
+    @AfterEach
+    public void tearDown(){
+        SqlStatementRecorder.stop();
+    }
+
+    @Test
+    @DisplayName("SQL 모양 : 주석, 리터럴, IN 목록 크기 제거")
+    public void shape(){
+        Assertions.assertThat(SqlStatementRecorder.shape("/* select b */ select b1_0.book_id from book b1_0 where b1_0.book_id in (?, ?, ?) and b1_0.name = 'a''b' and b1_0.category_mask > 12"))
+                .isEqualTo("select b1_0.book_id from book b1_0 where b1_0.book_id in (?) and b1_0.name = ? and b1_0.category_mask > ?");
+        Assertions.assertThat(SqlStatementRecorder.shape("select * from book_category where book_id in (?)"))
+                .isEqualTo(SqlStatementRecorder.shape("SELECT *  FROM book_category WHERE book_id IN (?,?)"));
+    }
+
+    @Test
+    @DisplayName("N+1 의심 : 같은 모양이 임계값 이상")
+    public void suspectedNPlusOne(){
+        SqlStatementRecorder recorder = SqlStatementRecorder.start();
+
+        recorder.record("select * from book where book_id = ?", 1000L);
+        for(int i=0; i<5; i++){
+            recorder.record("select * from book_category where book_id = " + i, 1000L);
+        }
+
+        Assertions.assertThat(recorder.getStatementCount()).isEqualTo(6);
+        Assertions.assertThat(recorder.getElapsedNanos()).isEqualTo(6000L);
+        Assertions.assertThat(recorder.suspectedNPlusOne(5)).containsOnlyKeys("select * from book_category where book_id = ?");
+        Assertions.assertThat(recorder.suspectedNPlusOne(6)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("모양별 실행 수, 배치로 보낸 행 수")
+    public void recordBatch(){
+        SqlStatementRecorder recorder = SqlStatementRecorder.start();
+
+        recorder.record("insert into book (author, name) values (?, ?)", 1000L);
+        recorder.record("insert into book_category (book_id, category_id) values (?, ?)", 1000L);
+        recorder.recordBatch(7);
+
+        Assertions.assertThat(recorder.getStatementCount("INSERT INTO book_category")).isEqualTo(1);
+        Assertions.assertThat(recorder.getStatementCount("insert into book")).isEqualTo(2);
+        Assertions.assertThat(recorder.getBatchCount()).isEqualTo(1);
+        Assertions.assertThat(recorder.getBatchedRowCount()).isEqualTo(7);
+
+        recorder.reset();
+        Assertions.assertThat(recorder.getBatchedRowCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 스레드 기록 연결")
+    public void attach(){
+        SqlStatementRecorder recorder = SqlStatementRecorder.start();
+
+        CompletableFuture.runAsync(() -> {
+            Assertions.assertThat(SqlStatementRecorder.current()).isNull();
+            recorder.attach();
+            try{
+                SqlStatementRecorder.current().record("select 1", 10L);
+            }finally{
+                SqlStatementRecorder.stop();
+            }
+        }).join();
+
+        Assertions.assertThat(recorder.getStatementCount()).isEqualTo(1);
+    }
+}